@@ -1,20 +1,38 @@
 package com.intelpentium.endercanteen;
 
 import com.intelpentium.endercanteen.compat.ThirstCompat;
-import com.intelpentium.endercanteen.compat.ThirstWasTakenProvider;
 import com.intelpentium.endercanteen.dispenser.CauldronDispenserBehavior;
+import com.intelpentium.endercanteen.fluid.CauldronClusters;
+import com.intelpentium.endercanteen.fluid.DeadLinks;
+import com.intelpentium.endercanteen.fluid.DrainStrategies;
+import com.intelpentium.endercanteen.fluid.DrinkProfiles;
+import com.intelpentium.endercanteen.fluid.HandlerCircuitBreaker;
 import com.intelpentium.endercanteen.item.CanteenEnergyStorage;
 import com.intelpentium.endercanteen.item.CanteenItem;
+import com.intelpentium.endercanteen.item.CrossDimensionDrains;
+import com.intelpentium.endercanteen.network.DimensionIdTable;
+import com.intelpentium.endercanteen.network.DimensionTablePacket;
+import com.intelpentium.endercanteen.network.DimensionTableTask;
+import com.intelpentium.endercanteen.network.DrinkPreviewPacket;
+import com.intelpentium.endercanteen.network.DrinkProfilesPacket;
 import com.intelpentium.endercanteen.network.StopDrinkingPacket;
 import com.intelpentium.endercanteen.registry.ModBlockEntities;
 import com.intelpentium.endercanteen.registry.ModBlocks;
 import com.intelpentium.endercanteen.registry.ModDataComponents;
 import com.intelpentium.endercanteen.registry.ModItems;
+import com.intelpentium.endercanteen.server.AutoDrinkScheduler;
+import com.intelpentium.endercanteen.server.CanteenCommand;
+import com.intelpentium.endercanteen.server.DrinkPreviewSync;
+import com.intelpentium.endercanteen.server.EnergyBank;
+import com.intelpentium.endercanteen.server.LinkTable;
+import com.intelpentium.endercanteen.server.LoadShedder;
+import com.intelpentium.endercanteen.server.RainClock;
 import net.minecraft.core.registries.Registries;
 import net.minecraft.network.chat.Component;
 import net.minecraft.world.item.BlockItem;
 import net.minecraft.world.item.CreativeModeTab;
 import net.minecraft.world.item.CreativeModeTabs;
+import net.neoforged.bus.api.EventPriority;
 import net.neoforged.bus.api.IEventBus;
 import net.neoforged.fml.ModContainer;
 import net.neoforged.fml.common.Mod;
@@ -22,7 +40,11 @@ import net.neoforged.fml.event.lifecycle.FMLCommonSetupEvent;
 import net.neoforged.neoforge.capabilities.Capabilities;
 import net.neoforged.neoforge.capabilities.RegisterCapabilitiesEvent;
 import net.neoforged.neoforge.common.NeoForge;
+import net.neoforged.neoforge.event.server.ServerStartedEvent;
+import net.neoforged.neoforge.event.server.ServerStoppedEvent;
+import net.neoforged.neoforge.network.event.RegisterConfigurationTasksEvent;
 import net.neoforged.neoforge.network.event.RegisterPayloadHandlersEvent;
+import net.neoforged.neoforge.network.handling.HandlerThread;
 import net.neoforged.neoforge.network.registration.PayloadRegistrar;
 import net.neoforged.neoforge.registries.DeferredHolder;
 import net.neoforged.neoforge.registries.DeferredItem;
@@ -42,6 +64,12 @@ public class EnderCanteen {
     public static final DeferredItem<BlockItem> FLUID_TAP_ITEM =
             ModItems.ITEMS.registerSimpleBlockItem("fluid_tap", ModBlocks.FLUID_TAP);
 
+    public static final DeferredItem<BlockItem> PURIFYING_FLUID_TAP_ITEM =
+            ModItems.ITEMS.registerSimpleBlockItem("purifying_fluid_tap", ModBlocks.PURIFYING_FLUID_TAP);
+
+    public static final DeferredItem<BlockItem> RAIN_COLLECTING_FLUID_TAP_ITEM =
+            ModItems.ITEMS.registerSimpleBlockItem("rain_collecting_fluid_tap", ModBlocks.RAIN_COLLECTING_FLUID_TAP);
+
     @SuppressWarnings("unused") // held for registration side-effect only
     public static final DeferredHolder<CreativeModeTab, CreativeModeTab> CANTEEN_TAB =
             CREATIVE_MODE_TABS.register("canteen_tab", () -> CreativeModeTab.builder()
@@ -51,55 +79,140 @@ public class EnderCanteen {
                     .displayItems((params, output) -> {
                         output.accept(ModItems.CANTEEN.get());
                         output.accept(FLUID_TAP_ITEM.get());
+                        output.accept(PURIFYING_FLUID_TAP_ITEM.get());
+                        output.accept(RAIN_COLLECTING_FLUID_TAP_ITEM.get());
                     })
                     .build());
 
     public EnderCanteen(IEventBus modEventBus, ModContainer modContainer) {
-        ModItems.register(modEventBus);
-        ModBlocks.register(modEventBus);
-        ModBlockEntities.register(modEventBus);
-        ModDataComponents.register(modEventBus);
-        CREATIVE_MODE_TABS.register(modEventBus);
+        StartupTrace trace = StartupTrace.begin("construction");
+        trace.step("registries", () -> {
+            ModItems.register(modEventBus);
+            ModBlocks.register(modEventBus);
+            ModBlockEntities.register(modEventBus);
+            ModDataComponents.register(modEventBus);
+            CREATIVE_MODE_TABS.register(modEventBus);
+        });
 
         // Register config
-        EnderCanteenConfig.register(modContainer);
+        trace.step("config", () -> EnderCanteenConfig.register(modContainer));
 
-        modEventBus.addListener(this::registerCapabilities);
-        modEventBus.addListener(this::commonSetup);
-        modEventBus.addListener(this::registerPayloads);
+        trace.step("mod listeners", () -> {
+            modEventBus.addListener(this::registerCapabilities);
+            modEventBus.addListener(this::commonSetup);
+            modEventBus.addListener(this::registerPayloads);
+            modEventBus.addListener(this::registerConfigurationTasks);
+        });
 
-        if (ThirstWasTakenProvider.isModLoaded()) {
-            NeoForge.EVENT_BUS.addListener(CanteenItem::onRegisterThirstValue);
-        }
+        // Only the mod ID is checked here; the provider itself loads on the first drink.
+        trace.step("thirst compat", () -> {
+            if (ThirstCompat.isThirstLoaded()) {
+                NeoForge.EVENT_BUS.addListener(CanteenItem::onRegisterThirstValue);
+                NeoForge.EVENT_BUS.addListener(EventPriority.LOWEST, ThirstCompat::onServerTick);
+            }
+        });
+        trace.step("energy storage", () -> CanteenEnergyStorage.register(NeoForge.EVENT_BUS));
+        trace.step("cross-dimension drains", () -> CrossDimensionDrains.register(NeoForge.EVENT_BUS));
+        trace.step("auto-drink", () -> AutoDrinkScheduler.register(NeoForge.EVENT_BUS));
+        trace.step("cauldron clusters", () -> CauldronClusters.register(NeoForge.EVENT_BUS));
+        trace.step("drink profiles", () -> DrinkProfiles.register(NeoForge.EVENT_BUS));
+        trace.step("drain strategies", () -> DrainStrategies.register(NeoForge.EVENT_BUS));
+        trace.step("circuit breaker", () -> HandlerCircuitBreaker.register(NeoForge.EVENT_BUS));
+        trace.step("dead links", () -> DeadLinks.register(NeoForge.EVENT_BUS));
+        trace.step("energy bank", () -> EnergyBank.register(NeoForge.EVENT_BUS));
+        trace.step("link table", () -> LinkTable.register(NeoForge.EVENT_BUS));
+        trace.step("rain clock", () -> RainClock.register(NeoForge.EVENT_BUS));
+        trace.step("load shedder", () -> LoadShedder.register(NeoForge.EVENT_BUS));
+        trace.step("drink preview sync", () -> DrinkPreviewSync.register(NeoForge.EVENT_BUS));
+        trace.step("commands", () -> NeoForge.EVENT_BUS.addListener(CanteenCommand::onRegisterCommands));
+        trace.step("dimension ids", () -> {
+            NeoForge.EVENT_BUS.addListener(ServerStartedEvent.class, e -> DimensionIdTable.build(e.getServer()));
+            NeoForge.EVENT_BUS.addListener(ServerStoppedEvent.class, e -> DimensionIdTable.clear());
+        });
+        trace.end();
     }
 
     private void commonSetup(FMLCommonSetupEvent event) {
-        ThirstCompat.init();
-        event.enqueueWork(CauldronDispenserBehavior::register);
+        event.enqueueWork(() -> {
+            StartupTrace trace = StartupTrace.begin("common setup");
+            trace.step("dispenser behaviours", CauldronDispenserBehavior::register);
+            // The purifying tap's buffer drains any amount: no need to probe it.
+            trace.step("drain strategies", () ->
+                    DrainStrategies.register(ModBlockEntities.PURIFYING_FLUID_TAP.get(), DrainStrategies.EXACT));
+            trace.end();
+        });
         LOGGER.info("[EnderCanteen] Initialised. Thirst Was Taken present: {}",
-                ThirstWasTakenProvider.isModLoaded());
+                ThirstCompat.isThirstLoaded());
     }
 
     private void registerPayloads(RegisterPayloadHandlersEvent event) {
-        PayloadRegistrar registrar = event.registrar("1");
+        PayloadRegistrar registrar = event.registrar("3");
         registrar.playToClient(
                 StopDrinkingPacket.TYPE,
                 StopDrinkingPacket.CODEC,
                 StopDrinkingPacket::handle
         );
+        registrar.playToClient(
+                DrinkPreviewPacket.TYPE,
+                DrinkPreviewPacket.CODEC,
+                DrinkPreviewPacket::handle
+        );
+        registrar.playToClient(
+                DrinkProfilesPacket.TYPE,
+                DrinkProfilesPacket.CODEC,
+                DrinkProfilesPacket::handle
+        );
+        // Handled on the network thread: the table must be in place before item packets are decoded.
+        registrar.executesOn(HandlerThread.NETWORK).configurationToClient(
+                DimensionTablePacket.TYPE,
+                DimensionTablePacket.CODEC,
+                DimensionTablePacket::handle
+        );
+    }
+
+    private void registerConfigurationTasks(RegisterConfigurationTasksEvent event) {
+        event.register(new DimensionTableTask(event.getListener()));
     }
 
     private void registerCapabilities(RegisterCapabilitiesEvent event) {
         event.registerBlockEntity(
                 Capabilities.FluidHandler.BLOCK,
                 ModBlockEntities.FLUID_TAP.get(),
-                (be, side) -> be.findAdjacentHandler()
+                (be, side) -> be.getFluidHandler()
+        );
+        // The purifying tap exposes its purified buffer
+        event.registerBlockEntity(
+                Capabilities.FluidHandler.BLOCK,
+                ModBlockEntities.PURIFYING_FLUID_TAP.get(),
+                (be, side) -> be.getFluidHandler()
+        );
+        // The rain-collecting tap collects into the adjacent tank on access
+        event.registerBlockEntity(
+                Capabilities.FluidHandler.BLOCK,
+                ModBlockEntities.RAIN_COLLECTING_FLUID_TAP.get(),
+                (be, side) -> be.getFluidHandler()
+        );
+        // Energy bank charging through the tap (null while the bank is disabled)
+        event.registerBlockEntity(
+                Capabilities.EnergyStorage.BLOCK,
+                ModBlockEntities.FLUID_TAP.get(),
+                (be, side) -> be.getEnergyStorage()
+        );
+        event.registerBlockEntity(
+                Capabilities.EnergyStorage.BLOCK,
+                ModBlockEntities.PURIFYING_FLUID_TAP.get(),
+                (be, side) -> be.getEnergyStorage()
+        );
+        event.registerBlockEntity(
+                Capabilities.EnergyStorage.BLOCK,
+                ModBlockEntities.RAIN_COLLECTING_FLUID_TAP.get(),
+                (be, side) -> be.getEnergyStorage()
         );
 
         // RF / Energy capability for the Canteen item
         event.registerItem(
                 Capabilities.EnergyStorage.ITEM,
-                (stack, ctx) -> new CanteenEnergyStorage(stack),
+                (stack, ctx) -> CanteenEnergyStorage.of(stack),
                 ModItems.CANTEEN.get()
         );
     }
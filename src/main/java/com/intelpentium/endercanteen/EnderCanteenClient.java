@@ -1,22 +1,29 @@
 package com.intelpentium.endercanteen;
 
 import com.intelpentium.endercanteen.compat.AppleSkinCompat;
+import com.intelpentium.endercanteen.network.DrinkPreviewPacket;
 import net.neoforged.api.distmarker.Dist;
+import net.neoforged.bus.api.IEventBus;
 import net.neoforged.fml.ModContainer;
-import net.neoforged.fml.ModList;
 import net.neoforged.fml.common.Mod;
+import net.neoforged.neoforge.client.event.ClientPlayerNetworkEvent;
 import net.neoforged.neoforge.common.NeoForge;
 
 @Mod(value = EnderCanteen.MODID, dist = Dist.CLIENT)
 public class EnderCanteenClient {
 
-    public EnderCanteenClient(ModContainer container) {
+    public EnderCanteenClient(IEventBus modEventBus, ModContainer container) {
+        StartupTrace trace = StartupTrace.begin("client construction");
+        trace.step("drink preview", () -> NeoForge.EVENT_BUS.addListener(ClientPlayerNetworkEvent.LoggingOut.class,
+                e -> DrinkPreviewPacket.clearClientPreview()));
         // Register AppleSkin FoodValuesEvent only on the client and only if AppleSkin is installed.
         // AppleSkin is a client-only mod – its classes are never present on a dedicated server.
-        if (ModList.get().isLoaded("appleskin")) {
-            NeoForge.EVENT_BUS.addListener(AppleSkinCompat::onFoodValues);
-            EnderCanteen.LOGGER.info("[EnderCanteen] AppleSkin detected – thirst preview enabled.");
-        }
+        trace.step("appleskin compat", () -> {
+            if (AppleSkinCompat.register(modEventBus)) {
+                EnderCanteen.LOGGER.info("[EnderCanteen] AppleSkin detected – thirst preview enabled.");
+            }
+        });
+        trace.end();
     }
 }
 
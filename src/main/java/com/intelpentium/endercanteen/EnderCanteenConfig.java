@@ -1,5 +1,6 @@
 package com.intelpentium.endercanteen;
 
+import com.intelpentium.endercanteen.server.EnergyBank;
 import net.neoforged.fml.ModContainer;
 import net.neoforged.neoforge.common.ModConfigSpec;
 
@@ -9,6 +10,9 @@ public class EnderCanteenConfig {
     public static final ModConfigSpec.IntValue DRINK_AMOUNT_MB;
     public static final ModConfigSpec.IntValue THIRST_PER_250MB;
     public static final ModConfigSpec.IntValue QUENCHED_PER_250MB;
+    public static final ModConfigSpec.BooleanValue SIP_MODE;
+    public static final ModConfigSpec.IntValue SIP_INTERVAL_TICKS;
+    public static final ModConfigSpec.BooleanValue LINK_TABLE_ENABLED;
     public static final ModConfigSpec.IntValue NAUSEA_DURATION_SECONDS;
     public static final ModConfigSpec.IntValue HUNGER_DURATION_SECONDS;
 
@@ -16,12 +20,43 @@ public class EnderCanteenConfig {
     public static final ModConfigSpec.BooleanValue RF_ENABLED;
     public static final ModConfigSpec.IntValue RF_CAPACITY;
     public static final ModConfigSpec.IntValue RF_COST_PER_THIRST_POINT;
+    public static final ModConfigSpec.IntValue RF_PASSIVE_RECHARGE;
+    public static final ModConfigSpec.BooleanValue RF_BANK_ENABLED;
+    public static final ModConfigSpec.EnumValue<EnergyBank.Scope> RF_BANK_SCOPE;
+    public static final ModConfigSpec.IntValue RF_BANK_CAPACITY;
 
     // Dispenser
     public static final ModConfigSpec.BooleanValue DISPENSER_CAULDRON_INTERACTION;
+    public static final ModConfigSpec.BooleanValue DISPENSER_TANK_INTERACTION;
 
     // Cauldron drinking
     public static final ModConfigSpec.BooleanValue CAULDRON_DRAIN_FULL;
+    public static final ModConfigSpec.BooleanValue CAULDRON_CLUSTER_ENABLED;
+    public static final ModConfigSpec.IntValue CAULDRON_CLUSTER_MAX_SIZE;
+
+    // Circuit breaker
+    public static final ModConfigSpec.BooleanValue CIRCUIT_BREAKER_ENABLED;
+    public static final ModConfigSpec.IntValue HANDLER_LATENCY_BUDGET_MICROS;
+    public static final ModConfigSpec.IntValue HANDLER_STRIKE_LIMIT;
+    public static final ModConfigSpec.IntValue HANDLER_BACKOFF_BASE_SECONDS;
+    public static final ModConfigSpec.IntValue HANDLER_BACKOFF_MAX_SECONDS;
+
+    // Purifying tap
+    public static final ModConfigSpec.IntValue PURIFIER_CAPACITY_MB;
+    public static final ModConfigSpec.IntValue PURIFIER_TICKS_PER_LEVEL;
+    public static final ModConfigSpec.IntValue RAIN_TAP_MB_PER_MINUTE;
+
+    // Load shedding
+    public static final ModConfigSpec.BooleanValue LOAD_SHEDDING_ENABLED;
+    public static final ModConfigSpec.IntValue SHED_REDUCED_MSPT;
+    public static final ModConfigSpec.IntValue SHED_DEGRADED_MSPT;
+    public static final ModConfigSpec.IntValue SHED_CRITICAL_MSPT;
+    public static final ModConfigSpec.IntValue SHED_RECOVERY_MARGIN_MSPT;
+
+    // Auto-drink
+    public static final ModConfigSpec.BooleanValue AUTO_DRINK_ENABLED;
+    public static final ModConfigSpec.IntValue AUTO_DRINK_THRESHOLD;
+    public static final ModConfigSpec.IntValue AUTO_DRINK_CHECK_INTERVAL_TICKS;
 
     static {
         ModConfigSpec.Builder builder = new ModConfigSpec.Builder();
@@ -40,6 +75,20 @@ public class EnderCanteenConfig {
                 .comment("Quench (saturation) points restored per 250 mB of water consumed. Default: 2")
                 .defineInRange("quenchedPer250mb", 2, 0, 20);
 
+        SIP_MODE = builder
+                .comment("If true, a drink is drained in slices while the canteen is in use instead of all at once when it ends.",
+                        "Stopping early only drains and charges the slices already drunk. Linked cauldrons always drain at the end. Default: false")
+                .define("sipMode", false);
+
+        SIP_INTERVAL_TICKS = builder
+                .comment("Ticks between two sips in sip mode (a drink takes 32 ticks). Default: 8")
+                .defineInRange("sipIntervalTicks", 8, 1, 31);
+
+        LINK_TABLE_ENABLED = builder
+                .comment("If true, linking stores a short id from a server-side link table instead of the tank position.",
+                        "All canteens linked to one tank share the id; '/endercanteen links retarget' moves them all at once. Default: false")
+                .define("linkTableEnabled", false);
+
         builder.pop();
         builder.comment("Effect durations when drinking dirty water (in seconds)").push("effects");
 
@@ -67,6 +116,24 @@ public class EnderCanteenConfig {
                 .comment("RF/FE consumed per restored thirst+quench point combined. Default: 1000")
                 .defineInRange("rfCostPerThirstPoint", 1_000, 0, 1_000_000);
 
+        RF_PASSIVE_RECHARGE = builder
+                .comment("RF/FE per tick a canteen slowly recharges by itself (0 = off). Computed from elapsed game time when the",
+                        "canteen's energy is read, so idle canteens cost nothing per tick. Default: 0")
+                .defineInRange("rfPassiveRecharge", 0, 0, 10_000);
+
+        RF_BANK_ENABLED = builder
+                .comment("If true, canteens draw RF from a shared server-side energy bank instead of storing it themselves.",
+                        "The bank is charged through the Fluid Tap, which then accepts RF/FE for its owner. Default: false")
+                .define("rfBankEnabled", false);
+
+        RF_BANK_SCOPE = builder
+                .comment("Who shares an energy bank: PLAYER (one per player) or TEAM (one per scoreboard team; players without a team use their own). Default: PLAYER")
+                .defineEnum("rfBankScope", EnergyBank.Scope.PLAYER);
+
+        RF_BANK_CAPACITY = builder
+                .comment("Maximum RF/FE a single energy bank can hold. Default: 10000000")
+                .defineInRange("rfBankCapacity", 10_000_000, 1, Integer.MAX_VALUE);
+
         builder.pop();
 
         builder.comment("Cauldron drinking settings").push("cauldron");
@@ -75,6 +142,98 @@ public class EnderCanteenConfig {
                 .comment("If true, drinking from a linked cauldron drains it completely instead of one level at a time. Default: true")
                 .define("cauldronDrainFull", true);
 
+        CAULDRON_CLUSTER_ENABLED = builder
+                .comment("If true, a canteen linked to a cauldron also drinks from all cauldrons connected to it (a cauldron cluster). Default: true")
+                .define("cauldronClusterEnabled", true);
+
+        CAULDRON_CLUSTER_MAX_SIZE = builder
+                .comment("Maximum number of cauldrons in one cluster. Default: 64")
+                .defineInRange("cauldronClusterMaxSize", 64, 1, 1024);
+
+        builder.pop();
+
+        builder.comment("Circuit breaker for slow or misbehaving fluid handlers of other mods").push("circuitbreaker");
+
+        CIRCUIT_BREAKER_ENABLED = builder
+                .comment("If true, fluid handlers that are repeatedly slow or misbehave are temporarily blacklisted. Default: true")
+                .define("circuitBreakerEnabled", true);
+
+        HANDLER_LATENCY_BUDGET_MICROS = builder
+                .comment("A single drain taking longer than this (in microseconds) counts as a strike against the handler. Default: 2000")
+                .defineInRange("handlerLatencyBudgetMicros", 2_000, 1, 1_000_000);
+
+        HANDLER_STRIKE_LIMIT = builder
+                .comment("Consecutive slow or failed drains before a handler class or position is blacklisted. Default: 3")
+                .defineInRange("handlerStrikeLimit", 3, 1, 100);
+
+        HANDLER_BACKOFF_BASE_SECONDS = builder
+                .comment("Blacklist duration after the first trip, in seconds; doubles with every further trip. Default: 10")
+                .defineInRange("handlerBackoffBaseSeconds", 10, 1, 3_600);
+
+        HANDLER_BACKOFF_MAX_SECONDS = builder
+                .comment("Upper bound for the blacklist duration, in seconds. Default: 600")
+                .defineInRange("handlerBackoffMaxSeconds", 600, 1, 86_400);
+
+        builder.pop();
+
+        builder.comment("Purifying Fluid Tap settings").push("purifier");
+
+        PURIFIER_CAPACITY_MB = builder
+                .comment("Water (in mB) the Purifying Fluid Tap buffers from adjacent tanks. Default: 4000")
+                .defineInRange("purifierCapacityMb", 4_000, 1, 1_000_000);
+
+        PURIFIER_TICKS_PER_LEVEL = builder
+                .comment("Ticks the Purifying Fluid Tap needs to raise the purity of its buffer by one level. Default: 600")
+                .defineInRange("purifierTicksPerLevel", 600, 1, 72_000);
+
+        builder.pop();
+
+        builder.comment("Rain-collecting Fluid Tap settings").push("raincollector");
+
+        RAIN_TAP_MB_PER_MINUTE = builder
+                .comment("Rainwater (in mB) the Rain-collecting Fluid Tap adds to the adjacent tank per minute of rain. Default: 100")
+                .defineInRange("rainTapMbPerMinute", 100, 0, 100_000);
+
+        builder.pop();
+
+        builder.comment("Load shedding: the canteen does less optional work while the server is behind on ticks").push("loadshedding");
+
+        LOAD_SHEDDING_ENABLED = builder
+                .comment("If true, canteen work is reduced in steps as the average tick time (MSPT) rises. Default: true")
+                .define("loadSheddingEnabled", true);
+
+        SHED_REDUCED_MSPT = builder
+                .comment("Average MSPT from which drink previews are refreshed less often. Default: 40")
+                .defineInRange("shedReducedMspt", 40, 1, 10_000);
+
+        SHED_DEGRADED_MSPT = builder
+                .comment("Average MSPT from which the drink pre-check, drink sounds and immediate preview updates are skipped. Default: 50")
+                .defineInRange("shedDegradedMspt", 50, 1, 10_000);
+
+        SHED_CRITICAL_MSPT = builder
+                .comment("Average MSPT from which new drinks drain in one go (no sip mode) and auto-drink checks run half as often. Default: 70")
+                .defineInRange("shedCriticalMspt", 70, 1, 10_000);
+
+        SHED_RECOVERY_MARGIN_MSPT = builder
+                .comment("A stage is left once the average MSPT is this far below its threshold. Default: 5")
+                .defineInRange("shedRecoveryMarginMspt", 5, 0, 1_000);
+
+        builder.pop();
+
+        builder.comment("Automatic drinking from linked canteens carried in the inventory").push("autodrink");
+
+        AUTO_DRINK_ENABLED = builder
+                .comment("If true, a linked canteen anywhere in the player's inventory drinks automatically when thirst drops below the threshold. Default: false")
+                .define("autoDrinkEnabled", false);
+
+        AUTO_DRINK_THRESHOLD = builder
+                .comment("Thirst level (0-20) below which a carried canteen drinks automatically. Default: 12")
+                .defineInRange("autoDrinkThreshold", 12, 1, 20);
+
+        AUTO_DRINK_CHECK_INTERVAL_TICKS = builder
+                .comment("Ticks between thirst checks for players carrying a linked canteen. Default: 100")
+                .defineInRange("autoDrinkCheckIntervalTicks", 100, 1, 255);
+
         builder.pop();
 
         builder.comment("Dispenser behaviour settings").push("dispenser");
@@ -83,6 +242,10 @@ public class EnderCanteenConfig {
                 .comment("If true, dispensers can fill cauldrons with water buckets and drain them with empty buckets. Default: true")
                 .define("dispenserCauldronInteraction", true);
 
+        DISPENSER_TANK_INTERACTION = builder
+                .comment("If true, dispensers can pour water buckets into fluid tanks and fill empty buckets from them, one bucket per dispense. Default: true")
+                .define("dispenserTankInteraction", true);
+
         builder.pop();
         SPEC = builder.build();
     }
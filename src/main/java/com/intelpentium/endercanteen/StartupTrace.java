@@ -0,0 +1,39 @@
+package com.intelpentium.endercanteen;
+
+import java.util.Locale;
+
+/**
+ * Times the steps of one startup phase (mod construction, common setup) and logs them as a
+ * single line when the phase ends, e.g.
+ * {@code [EnderCanteen] construction: 4.1 ms (registries 2.9 ms, config 0.6 ms, ...)}.
+ */
+final class StartupTrace {
+
+    private final String phase;
+    private final long start = System.nanoTime();
+    private final StringBuilder steps = new StringBuilder();
+
+    private StartupTrace(String phase) {
+        this.phase = phase;
+    }
+
+    static StartupTrace begin(String phase) {
+        return new StartupTrace(phase);
+    }
+
+    /** Runs {@code step} and records how long it took. */
+    void step(String name, Runnable step) {
+        long stepStart = System.nanoTime();
+        step.run();
+        if (!steps.isEmpty()) steps.append(", ");
+        steps.append(name).append(' ').append(millis(System.nanoTime() - stepStart)).append(" ms");
+    }
+
+    void end() {
+        EnderCanteen.LOGGER.info("[EnderCanteen] {}: {} ms ({})", phase, millis(System.nanoTime() - start), steps);
+    }
+
+    private static String millis(long nanos) {
+        return String.format(Locale.ROOT, "%.1f", nanos / 1_000_000.0);
+    }
+}
@@ -1,9 +1,17 @@
 package com.intelpentium.endercanteen.block;
 
 import com.intelpentium.endercanteen.blockentity.FluidTapBlockEntity;
+import com.intelpentium.endercanteen.fluid.DeadLinks;
 import com.mojang.serialization.MapCodec;
 import net.minecraft.core.BlockPos;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.util.RandomSource;
+import net.minecraft.world.entity.LivingEntity;
+import net.minecraft.world.entity.player.Player;
+import net.minecraft.world.item.ItemStack;
+import net.minecraft.world.level.Level;
 import net.minecraft.world.level.block.BaseEntityBlock;
+import net.minecraft.world.level.block.Block;
 import net.minecraft.world.level.block.RenderShape;
 import net.minecraft.world.level.block.entity.BlockEntity;
 import net.minecraft.world.level.block.state.BlockState;
@@ -15,6 +23,8 @@ import org.jetbrains.annotations.Nullable;
  *
  * The tap delegates IFluidHandler capability queries to the first adjacent
  * block that exposes the capability (checked at drink time inside FluidTapBlockEntity).
+ * The placing player becomes the owner, whose energy bank the tap charges (if enabled).
+ * Comparators read the adjacent tank's fill level from a signal cached in the block entity.
  */
 public class FluidTapBlock extends BaseEntityBlock {
 
@@ -35,6 +45,46 @@ public class FluidTapBlock extends BaseEntityBlock {
         return new FluidTapBlockEntity(pos, state);
     }
 
+    @Override
+    public void setPlacedBy(Level level, BlockPos pos, BlockState state, @Nullable LivingEntity placer, ItemStack stack) {
+        super.setPlacedBy(level, pos, state, placer, stack);
+        if (!level.isClientSide && placer instanceof Player player
+                && level.getBlockEntity(pos) instanceof FluidTapBlockEntity tap) {
+            tap.setOwner(player);
+        }
+    }
+
+    @Override
+    protected boolean hasAnalogOutputSignal(BlockState state) {
+        return true;
+    }
+
+    @Override
+    protected int getAnalogOutputSignal(BlockState state, Level level, BlockPos pos) {
+        return level.getBlockEntity(pos) instanceof FluidTapBlockEntity tap ? tap.getComparatorSignal() : 0;
+    }
+
+    /**
+     * A tank placed or removed next to the tap changes what the tap exposes: invalidates the
+     * capabilities at the tap, which also revives it in {@link DeadLinks}. Updates from a
+     * neighbour that is still the same block entity or block are ignored.
+     */
+    @Override
+    protected void neighborChanged(BlockState state, Level level, BlockPos pos, Block neighborBlock,
+                                   BlockPos neighborPos, boolean movedByPiston) {
+        super.neighborChanged(state, level, pos, neighborBlock, neighborPos, movedByPiston);
+        if (!level.isClientSide && level.getBlockEntity(pos) instanceof FluidTapBlockEntity tap
+                && tap.neighbourReplaced(neighborPos)) {
+            level.invalidateCapabilities(pos);
+        }
+    }
+
+    /** Comparator poll, see {@link FluidTapBlockEntity#pollComparator()}. */
+    @Override
+    protected void tick(BlockState state, ServerLevel level, BlockPos pos, RandomSource random) {
+        if (level.getBlockEntity(pos) instanceof FluidTapBlockEntity tap) tap.pollComparator();
+    }
+
     @Override
     public RenderShape getRenderShape(BlockState state) {
         return RenderShape.MODEL;
@@ -0,0 +1,85 @@
+package com.intelpentium.endercanteen.block;
+
+import com.intelpentium.endercanteen.blockentity.PurifyingFluidTapBlockEntity;
+import com.intelpentium.endercanteen.registry.ModBlockEntities;
+import com.mojang.serialization.MapCodec;
+import net.minecraft.core.BlockPos;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.util.RandomSource;
+import net.minecraft.world.entity.LivingEntity;
+import net.minecraft.world.item.ItemStack;
+import net.minecraft.world.level.Level;
+import net.minecraft.world.level.block.BaseEntityBlock;
+import net.minecraft.world.level.block.Block;
+import net.minecraft.world.level.block.entity.BlockEntity;
+import net.minecraft.world.level.block.entity.BlockEntityTicker;
+import net.minecraft.world.level.block.entity.BlockEntityType;
+import net.minecraft.world.level.block.state.BlockState;
+import net.minecraft.world.level.block.state.StateDefinition;
+import net.minecraft.world.level.block.state.properties.BooleanProperty;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * PurifyingFluidTapBlock – a Fluid Tap that buffers water from adjacent tanks and raises
+ * its purity over time (see {@link PurifyingFluidTapBlockEntity}).
+ *
+ * The block entity only ticks while {@link #ACTIVE} is set. Changing the property makes the
+ * chunk re-query {@link #getTicker}, so a dormant tap has no ticker at all. It is woken
+ * through a scheduled block tick on neighbour updates, capability changes and drains.
+ */
+public class PurifyingFluidTapBlock extends FluidTapBlock {
+
+    public static final MapCodec<PurifyingFluidTapBlock> CODEC = simpleCodec(PurifyingFluidTapBlock::new);
+    public static final BooleanProperty ACTIVE = BooleanProperty.create("active");
+
+    public PurifyingFluidTapBlock(Properties properties) {
+        super(properties);
+        registerDefaultState(stateDefinition.any().setValue(ACTIVE, false));
+    }
+
+    @Override
+    protected MapCodec<? extends BaseEntityBlock> codec() {
+        return CODEC;
+    }
+
+    @Override
+    protected void createBlockStateDefinition(StateDefinition.Builder<Block, BlockState> builder) {
+        builder.add(ACTIVE);
+    }
+
+    @Nullable
+    @Override
+    public BlockEntity newBlockEntity(BlockPos pos, BlockState state) {
+        return new PurifyingFluidTapBlockEntity(pos, state);
+    }
+
+    @Nullable
+    @Override
+    public <T extends BlockEntity> BlockEntityTicker<T> getTicker(Level level, BlockState state, BlockEntityType<T> type) {
+        if (level.isClientSide || !state.getValue(ACTIVE)) return null;
+        return createTickerHelper(type, ModBlockEntities.PURIFYING_FLUID_TAP.get(), PurifyingFluidTapBlockEntity::serverTick);
+    }
+
+    @Override
+    public void setPlacedBy(Level level, BlockPos pos, BlockState state, @Nullable LivingEntity placer, ItemStack stack) {
+        super.setPlacedBy(level, pos, state, placer, stack);
+        if (!level.isClientSide) level.scheduleTick(pos, this, 1);
+    }
+
+    @Override
+    protected void neighborChanged(BlockState state, Level level, BlockPos pos, Block neighborBlock,
+                                   BlockPos neighborPos, boolean movedByPiston) {
+        super.neighborChanged(state, level, pos, neighborBlock, neighborPos, movedByPiston);
+        if (!level.isClientSide && !state.getValue(ACTIVE)) level.scheduleTick(pos, this, 1);
+    }
+
+    /** Comparator poll and wake-up: starts ticking if the buffer has something to do. */
+    @Override
+    protected void tick(BlockState state, ServerLevel level, BlockPos pos, RandomSource random) {
+        super.tick(state, level, pos, random);
+        if (state.getValue(ACTIVE)) return;
+        if (level.getBlockEntity(pos) instanceof PurifyingFluidTapBlockEntity tap && tap.hasWork()) {
+            level.setBlock(pos, state.setValue(ACTIVE, true), Block.UPDATE_CLIENTS);
+        }
+    }
+}
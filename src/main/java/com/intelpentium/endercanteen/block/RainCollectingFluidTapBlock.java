@@ -0,0 +1,55 @@
+package com.intelpentium.endercanteen.block;
+
+import com.intelpentium.endercanteen.blockentity.RainCollectingFluidTapBlockEntity;
+import com.mojang.serialization.MapCodec;
+import net.minecraft.core.BlockPos;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.util.RandomSource;
+import net.minecraft.world.level.Level;
+import net.minecraft.world.level.block.BaseEntityBlock;
+import net.minecraft.world.level.block.Block;
+import net.minecraft.world.level.block.entity.BlockEntity;
+import net.minecraft.world.level.block.state.BlockState;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * RainCollectingFluidTapBlock – a Fluid Tap that collects rainwater into the adjacent tank
+ * (see {@link RainCollectingFluidTapBlockEntity}). It has no ticker; collection happens on
+ * access and on the scheduled block ticks it already uses.
+ */
+public class RainCollectingFluidTapBlock extends FluidTapBlock {
+
+    public static final MapCodec<RainCollectingFluidTapBlock> CODEC = simpleCodec(RainCollectingFluidTapBlock::new);
+
+    public RainCollectingFluidTapBlock(Properties properties) {
+        super(properties);
+    }
+
+    @Override
+    protected MapCodec<? extends BaseEntityBlock> codec() {
+        return CODEC;
+    }
+
+    @Nullable
+    @Override
+    public BlockEntity newBlockEntity(BlockPos pos, BlockState state) {
+        return new RainCollectingFluidTapBlockEntity(pos, state);
+    }
+
+    /** A block placed or removed next to the tap may change whether rain reaches it. */
+    @Override
+    protected void neighborChanged(BlockState state, Level level, BlockPos pos, Block neighborBlock,
+                                   BlockPos neighborPos, boolean movedByPiston) {
+        super.neighborChanged(state, level, pos, neighborBlock, neighborPos, movedByPiston);
+        if (!level.isClientSide && level.getBlockEntity(pos) instanceof RainCollectingFluidTapBlockEntity tap) {
+            tap.invalidateExposure();
+        }
+    }
+
+    /** Chunk-load catch-up and comparator poll: collects first so the signal includes the rain. */
+    @Override
+    protected void tick(BlockState state, ServerLevel level, BlockPos pos, RandomSource random) {
+        if (level.getBlockEntity(pos) instanceof RainCollectingFluidTapBlockEntity tap) tap.collectRain();
+        super.tick(state, level, pos, random);
+    }
+}
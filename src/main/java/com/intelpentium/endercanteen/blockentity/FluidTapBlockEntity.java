@@ -1,14 +1,27 @@
 package com.intelpentium.endercanteen.blockentity;
 
+import com.intelpentium.endercanteen.fluid.HandlerCircuitBreaker;
 import com.intelpentium.endercanteen.registry.ModBlockEntities;
+import com.intelpentium.endercanteen.server.EnergyBank;
 import net.minecraft.core.BlockPos;
 import net.minecraft.core.Direction;
+import net.minecraft.core.HolderLookup;
+import net.minecraft.nbt.CompoundTag;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.world.entity.player.Player;
+import net.minecraft.world.level.block.Blocks;
 import net.minecraft.world.level.block.entity.BlockEntity;
+import net.minecraft.world.level.block.entity.BlockEntityType;
 import net.minecraft.world.level.block.state.BlockState;
 import net.neoforged.neoforge.capabilities.Capabilities;
+import net.neoforged.neoforge.energy.IEnergyStorage;
+import net.neoforged.neoforge.fluids.FluidStack;
 import net.neoforged.neoforge.fluids.capability.IFluidHandler;
+import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
+import java.util.UUID;
+
 /**
  * FluidTapBlockEntity – searches all 6 adjacent faces for a neighbour that exposes
  * an IFluidHandler capability and delegates fluid operations to it.
@@ -16,11 +29,75 @@ import org.jetbrains.annotations.Nullable;
  * The canteen itself can also link directly to any fluid-handler block, skipping
  * this block entity entirely. The tap is simply a convenience for tanks that are
  * otherwise hard to reach or belong to multiblock structures.
+ *
+ * With the shared energy bank enabled, the tap also accepts RF/FE and credits it to the
+ * {@link EnergyBank} account of the player who placed it.
+ *
+ * The comparator output is a cached fill level of the adjacent tank. It is recomputed after
+ * every drain or fill through the tap's fluid capability and, while a comparator is next to
+ * the tap, by a scheduled block tick every {@value #COMPARATOR_POLL_TICKS} ticks (to catch
+ * changes made directly on the tank). Comparators are only notified when the 0–15 value changes.
  */
 public class FluidTapBlockEntity extends BlockEntity {
 
+    public static final int COMPARATOR_POLL_TICKS = 40;
+
+    @Nullable
+    private UUID owner;
+    @Nullable
+    private String ownerName;
+    private final BankDeposit bankDeposit = new BankDeposit();
+    private final TapHandler tapHandler = new TapHandler();
+    /** Cached comparator output, or -1 until first computed. */
+    private int comparatorSignal = -1;
+    private boolean pollScheduled;
+    /** Block entity – or block, where there is none – last seen on each side; see {@link #neighbourReplaced}. */
+    private final Object[] neighbours = new Object[6];
+
     public FluidTapBlockEntity(BlockPos pos, BlockState state) {
-        super(ModBlockEntities.FLUID_TAP.get(), pos, state);
+        this(ModBlockEntities.FLUID_TAP.get(), pos, state);
+    }
+
+    protected FluidTapBlockEntity(BlockEntityType<?> type, BlockPos pos, BlockState state) {
+        super(type, pos, state);
+    }
+
+    public void setOwner(Player player) {
+        owner = player.getUUID();
+        ownerName = player.getScoreboardName();
+        setChanged();
+    }
+
+    /** Energy capability: deposits into the owner's bank account, or null while the bank is off. */
+    @Nullable
+    public IEnergyStorage getEnergyStorage() {
+        return EnergyBank.isEnabled() && owner != null ? bankDeposit : null;
+    }
+
+    @Override
+    protected void saveAdditional(@NotNull CompoundTag tag, @NotNull HolderLookup.Provider registries) {
+        super.saveAdditional(tag, registries);
+        if (owner != null) tag.putUUID("Owner", owner);
+        if (ownerName != null) tag.putString("OwnerName", ownerName);
+    }
+
+    @Override
+    protected void loadAdditional(@NotNull CompoundTag tag, @NotNull HolderLookup.Provider registries) {
+        super.loadAdditional(tag, registries);
+        owner = tag.hasUUID("Owner") ? tag.getUUID("Owner") : null;
+        ownerName = tag.contains("OwnerName") ? tag.getString("OwnerName") : null;
+    }
+
+    /**
+     * Fluid capability: the adjacent handler, wrapped so that drains and fills through the
+     * tap refresh the comparator signal. Null if there is no adjacent handler.
+     */
+    @Nullable
+    public IFluidHandler getFluidHandler() {
+        IFluidHandler handler = findAdjacentHandler();
+        if (handler == null) return null;
+        tapHandler.delegate = handler;
+        return tapHandler;
     }
 
     /**
@@ -42,5 +119,180 @@ public class FluidTapBlockEntity extends BlockEntity {
         }
         return null;
     }
-}
 
+    /**
+     * True if the block or block entity at {@code neighbourPos} is not the one last seen there,
+     * so a tank may have appeared or gone – as opposed to a neighbour that only updated (redstone,
+     * a cauldron level, a comparator). The first update from each side after loading counts.
+     */
+    public boolean neighbourReplaced(BlockPos neighbourPos) {
+        if (level == null) return false;
+        Direction dir = Direction.fromDelta(neighbourPos.getX() - worldPosition.getX(),
+                neighbourPos.getY() - worldPosition.getY(), neighbourPos.getZ() - worldPosition.getZ());
+        if (dir == null) return false;
+        BlockEntity blockEntity = level.getBlockEntity(neighbourPos);
+        Object current = blockEntity != null ? blockEntity : level.getBlockState(neighbourPos).getBlock();
+        if (neighbours[dir.get3DDataValue()] == current) return false;
+        neighbours[dir.get3DDataValue()] = current;
+        return true;
+    }
+
+    // -------------------------------------------------------------------------
+    // Comparator output
+    // -------------------------------------------------------------------------
+
+    /** The cached comparator output; starts the poll if a comparator is reading it. */
+    public int getComparatorSignal() {
+        if (comparatorSignal < 0) comparatorSignal = computeComparatorSignal();
+        if (!pollScheduled && level != null && !level.isClientSide) {
+            pollScheduled = true;
+            level.scheduleTick(worldPosition, getBlockState().getBlock(), COMPARATOR_POLL_TICKS);
+        }
+        return comparatorSignal;
+    }
+
+    /** Recomputes the signal and notifies comparators if the 0–15 value changed. */
+    public void refreshComparatorSignal() {
+        if (level == null || level.isClientSide || comparatorSignal < 0) return; // nobody has read it yet
+        int signal = computeComparatorSignal();
+        if (signal != comparatorSignal) {
+            comparatorSignal = signal;
+            level.updateNeighbourForOutputSignal(worldPosition, getBlockState().getBlock());
+        }
+    }
+
+    /** Scheduled-tick poll; keeps itself going only while a comparator is attached. */
+    public void pollComparator() {
+        pollScheduled = false;
+        if (level == null || !hasAdjacentComparator()) return;
+        refreshComparatorSignal();
+        pollScheduled = true;
+        level.scheduleTick(worldPosition, getBlockState().getBlock(), COMPARATOR_POLL_TICKS);
+    }
+
+    /** Same fill-level formula as vanilla containers: 0 when empty, 1–15 otherwise. */
+    private int computeComparatorSignal() {
+        IFluidHandler handler = findAdjacentHandler();
+        if (handler == null) return 0;
+        long amount = 0;
+        long capacity = 0;
+        for (int tank = 0; tank < handler.getTanks(); tank++) {
+            amount += handler.getFluidInTank(tank).getAmount();
+            capacity += handler.getTankCapacity(tank);
+        }
+        if (amount <= 0 || capacity <= 0) return 0;
+        return 1 + (int) (Math.min(amount, capacity) * 14 / capacity);
+    }
+
+    /** Comparators read through one solid block, like they do for containers. */
+    private boolean hasAdjacentComparator() {
+        for (Direction dir : Direction.Plane.HORIZONTAL) {
+            BlockPos pos = worldPosition.relative(dir);
+            BlockState state = level.getBlockState(pos);
+            if (state.is(Blocks.COMPARATOR)) return true;
+            if (state.isRedstoneConductor(level, pos) && level.getBlockState(pos.relative(dir)).is(Blocks.COMPARATOR)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Delegates to the adjacent handler resolved by {@link #getFluidHandler()}. The circuit
+     * breaker judges the adjacent handler, not this wrapper that every tap shares.
+     */
+    private final class TapHandler implements IFluidHandler, HandlerCircuitBreaker.Delegating {
+
+        private IFluidHandler delegate;
+
+        @Override
+        public IFluidHandler delegate() {
+            return delegate;
+        }
+
+        @Override
+        public int getTanks() {
+            return delegate.getTanks();
+        }
+
+        @Override
+        public @NotNull FluidStack getFluidInTank(int tank) {
+            return delegate.getFluidInTank(tank);
+        }
+
+        @Override
+        public int getTankCapacity(int tank) {
+            return delegate.getTankCapacity(tank);
+        }
+
+        @Override
+        public boolean isFluidValid(int tank, @NotNull FluidStack stack) {
+            return delegate.isFluidValid(tank, stack);
+        }
+
+        @Override
+        public int fill(FluidStack resource, FluidAction action) {
+            int filled = delegate.fill(resource, action);
+            if (filled > 0 && action.execute()) refreshComparatorSignal();
+            return filled;
+        }
+
+        @Override
+        public @NotNull FluidStack drain(FluidStack resource, FluidAction action) {
+            FluidStack drained = delegate.drain(resource, action);
+            if (!drained.isEmpty() && action.execute()) refreshComparatorSignal();
+            return drained;
+        }
+
+        @Override
+        public @NotNull FluidStack drain(int maxDrain, FluidAction action) {
+            FluidStack drained = delegate.drain(maxDrain, action);
+            if (!drained.isEmpty() && action.execute()) refreshComparatorSignal();
+            return drained;
+        }
+    }
+
+    /** Receive-only view of the owner's bank account. */
+    private final class BankDeposit implements IEnergyStorage {
+
+        @Nullable
+        private EnergyBank.Account account() {
+            if (owner == null || level == null || level.isClientSide) return null;
+            MinecraftServer server = level.getServer();
+            return server != null ? EnergyBank.get(server).account(server, owner, ownerName) : null;
+        }
+
+        @Override
+        public int receiveEnergy(int maxReceive, boolean simulate) {
+            EnergyBank.Account account = account();
+            return account != null ? account.deposit(maxReceive, simulate) : 0;
+        }
+
+        @Override
+        public int extractEnergy(int maxExtract, boolean simulate) {
+            return 0;
+        }
+
+        @Override
+        public int getEnergyStored() {
+            EnergyBank.Account account = account();
+            return account != null ? account.energy() : 0;
+        }
+
+        @Override
+        public int getMaxEnergyStored() {
+            EnergyBank.Account account = account();
+            return account != null ? account.capacity() : 0;
+        }
+
+        @Override
+        public boolean canExtract() {
+            return false;
+        }
+
+        @Override
+        public boolean canReceive() {
+            return true;
+        }
+    }
+}
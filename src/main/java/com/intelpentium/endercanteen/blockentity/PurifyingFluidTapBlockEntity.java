@@ -0,0 +1,255 @@
+package com.intelpentium.endercanteen.blockentity;
+
+import com.intelpentium.endercanteen.EnderCanteenConfig;
+import com.intelpentium.endercanteen.block.PurifyingFluidTapBlock;
+import com.intelpentium.endercanteen.compat.ThirstCompat;
+import com.intelpentium.endercanteen.fluid.DrinkProfile;
+import com.intelpentium.endercanteen.fluid.DrinkProfiles;
+import com.intelpentium.endercanteen.registry.ModBlockEntities;
+import dev.ghen.thirst.content.registry.ThirstComponent;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.Direction;
+import net.minecraft.core.HolderLookup;
+import net.minecraft.nbt.CompoundTag;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.world.level.Level;
+import net.minecraft.world.level.block.Block;
+import net.minecraft.world.level.block.state.BlockState;
+import net.neoforged.neoforge.capabilities.BlockCapabilityCache;
+import net.neoforged.neoforge.capabilities.Capabilities;
+import net.neoforged.neoforge.fluids.FluidStack;
+import net.neoforged.neoforge.fluids.capability.IFluidHandler;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * PurifyingFluidTapBlockEntity – buffers water pulled from adjacent tanks and raises its
+ * purity by one level every {@code purifierTicksPerLevel} ticks, up to purified (3).
+ * The purity is kept as {@link ThirstComponent#PURITY} on the buffered stack, so canteens
+ * linked to the tap (or pipes draining it) get the purified water.
+ *
+ * Water added to the buffer lowers its purity to the worse of the two. Only fluids whose
+ * {@link DrinkProfile} uses purity are accepted.
+ *
+ * The ticker only exists while {@link PurifyingFluidTapBlock#ACTIVE} is set: the tap goes
+ * dormant once the buffer is purified and cannot be topped up. Neighbour updates, neighbour
+ * capability invalidation and drains from the buffer wake it again.
+ */
+public class PurifyingFluidTapBlockEntity extends FluidTapBlockEntity {
+
+    private static final int MAX_PURITY = 3;
+    /** Purity assumed for water filled in without a purity component (Thirst Was Taken's default). */
+    private static final int DEFAULT_PURITY = 2;
+    private static final int REFILL_INTERVAL_TICKS = 20;
+
+    private final Buffer buffer = new Buffer();
+    @SuppressWarnings("unchecked")
+    private final BlockCapabilityCache<IFluidHandler, Direction>[] neighbours = new BlockCapabilityCache[6];
+    private int ticks;
+    private int purifyTicks;
+
+    public PurifyingFluidTapBlockEntity(BlockPos pos, BlockState state) {
+        super(ModBlockEntities.PURIFYING_FLUID_TAP.get(), pos, state);
+    }
+
+    /** Canteens and pipes interact with the purified buffer, not the tanks behind it. */
+    @Override
+    public IFluidHandler findAdjacentHandler() {
+        return buffer;
+    }
+
+    /** The buffer is exposed whatever is next to the tap: its capability never changes with a neighbour. */
+    @Override
+    public boolean neighbourReplaced(BlockPos neighbourPos) {
+        return false;
+    }
+
+    @Override
+    public void onLoad() {
+        super.onLoad();
+        if (level instanceof ServerLevel serverLevel) {
+            for (Direction dir : Direction.values()) {
+                neighbours[dir.get3DDataValue()] = BlockCapabilityCache.create(
+                        Capabilities.FluidHandler.BLOCK, serverLevel, worldPosition.relative(dir), dir.getOpposite(),
+                        () -> !isRemoved(), this::wake);
+            }
+        }
+    }
+
+    // -------------------------------------------------------------------------
+    // Ticking
+    // -------------------------------------------------------------------------
+
+    public static void serverTick(Level level, BlockPos pos, BlockState state, PurifyingFluidTapBlockEntity tap) {
+        tap.tick(level, pos, state);
+    }
+
+    private void tick(Level level, BlockPos pos, BlockState state) {
+        boolean refilled = false;
+        if (++ticks >= REFILL_INTERVAL_TICKS) {
+            ticks = 0;
+            refilled = refill(IFluidHandler.FluidAction.EXECUTE);
+        }
+
+        int purity = buffer.purity();
+        if (purity >= 0 && purity < MAX_PURITY) {
+            if (++purifyTicks >= EnderCanteenConfig.PURIFIER_TICKS_PER_LEVEL.get()) {
+                purifyTicks = 0;
+                buffer.fluid.set(ThirstComponent.PURITY, purity + 1);
+                setChanged();
+            }
+            return;
+        }
+
+        // Purified (or empty) and nothing came in: go dormant until something changes.
+        purifyTicks = 0;
+        if (ticks == 0 && !refilled) {
+            level.setBlock(pos, state.setValue(PurifyingFluidTapBlock.ACTIVE, false), Block.UPDATE_CLIENTS);
+        }
+    }
+
+    /** True if the tap has water to purify or can top up its buffer. */
+    public boolean hasWork() {
+        int purity = buffer.purity();
+        return (purity >= 0 && purity < MAX_PURITY) || refill(IFluidHandler.FluidAction.SIMULATE);
+    }
+
+    /** Schedules a wake-up check; safe to call from capability invalidation listeners. */
+    private void wake() {
+        if (level == null || level.isClientSide || isRemoved()) return;
+        BlockState state = getBlockState();
+        if (state.hasProperty(PurifyingFluidTapBlock.ACTIVE) && !state.getValue(PurifyingFluidTapBlock.ACTIVE)) {
+            level.scheduleTick(worldPosition, state.getBlock(), 1);
+        }
+    }
+
+    /** Pulls water from the first neighbour that has some into the buffer. */
+    private boolean refill(IFluidHandler.FluidAction action) {
+        int space = buffer.space();
+        if (space <= 0 || level == null) return false;
+        for (Direction dir : Direction.values()) {
+            BlockCapabilityCache<IFluidHandler, Direction> cache = neighbours[dir.get3DDataValue()];
+            IFluidHandler handler = cache != null ? cache.getCapability() : null;
+            if (handler == null) continue;
+
+            FluidStack available = handler.drain(space, IFluidHandler.FluidAction.SIMULATE);
+            if (available.isEmpty() || !buffer.isFluidValid(0, available)) continue;
+            if (!buffer.fluid.isEmpty() && available.getFluid() != buffer.fluid.getFluid()) continue;
+            if (action.simulate()) return true;
+
+            FluidStack drained = handler.drain(available.getAmount(), IFluidHandler.FluidAction.EXECUTE);
+            if (drained.isEmpty()) continue;
+            buffer.add(drained, ThirstCompat.getPurity(drained, level, worldPosition.relative(dir)));
+            refreshComparatorSignal();
+            return true;
+        }
+        return false;
+    }
+
+    // -------------------------------------------------------------------------
+    // Persistence
+    // -------------------------------------------------------------------------
+
+    @Override
+    protected void saveAdditional(@NotNull CompoundTag tag, @NotNull HolderLookup.Provider registries) {
+        super.saveAdditional(tag, registries);
+        if (!buffer.fluid.isEmpty()) tag.put("Buffer", buffer.fluid.save(registries));
+        tag.putInt("PurifyTicks", purifyTicks);
+    }
+
+    @Override
+    protected void loadAdditional(@NotNull CompoundTag tag, @NotNull HolderLookup.Provider registries) {
+        super.loadAdditional(tag, registries);
+        buffer.fluid = FluidStack.parseOptional(registries, tag.getCompound("Buffer"));
+        purifyTicks = tag.getInt("PurifyTicks");
+    }
+
+    // -------------------------------------------------------------------------
+    // Buffer
+    // -------------------------------------------------------------------------
+
+    /**
+     * Single-tank buffer. Unlike {@code FluidTank} it merges water of different purity
+     * instead of rejecting stacks whose components differ.
+     */
+    private final class Buffer implements IFluidHandler {
+
+        FluidStack fluid = FluidStack.EMPTY;
+
+        int space() {
+            return Math.max(0, EnderCanteenConfig.PURIFIER_CAPACITY_MB.get() - fluid.getAmount());
+        }
+
+        /** Purity of the buffered water, or -1 if empty. */
+        int purity() {
+            if (fluid.isEmpty()) return -1;
+            Integer purity = fluid.get(ThirstComponent.PURITY);
+            return purity != null ? purity : DEFAULT_PURITY;
+        }
+
+        void add(FluidStack incoming, int incomingPurity) {
+            int mixed = fluid.isEmpty() ? incomingPurity : Math.min(purity(), incomingPurity);
+            if (fluid.isEmpty()) {
+                fluid = incoming.copy();
+            } else {
+                fluid.grow(incoming.getAmount());
+            }
+            fluid.set(ThirstComponent.PURITY, mixed);
+            if (mixed < MAX_PURITY) purifyTicks = 0;
+            setChanged();
+        }
+
+        @Override
+        public int getTanks() {
+            return 1;
+        }
+
+        @Override
+        public @NotNull FluidStack getFluidInTank(int tank) {
+            return fluid;
+        }
+
+        @Override
+        public int getTankCapacity(int tank) {
+            return EnderCanteenConfig.PURIFIER_CAPACITY_MB.get();
+        }
+
+        @Override
+        public boolean isFluidValid(int tank, @NotNull FluidStack stack) {
+            DrinkProfile profile = DrinkProfiles.get(stack);
+            return profile != null && profile.purity();
+        }
+
+        @Override
+        public int fill(FluidStack resource, FluidAction action) {
+            if (resource.isEmpty() || !isFluidValid(0, resource)) return 0;
+            if (!fluid.isEmpty() && resource.getFluid() != fluid.getFluid()) return 0;
+            int amount = Math.min(resource.getAmount(), space());
+            if (amount > 0 && action.execute()) {
+                Integer purity = resource.get(ThirstComponent.PURITY);
+                add(resource.copyWithAmount(amount), purity != null ? purity : DEFAULT_PURITY);
+                wake();
+            }
+            return amount;
+        }
+
+        @Override
+        public @NotNull FluidStack drain(FluidStack resource, FluidAction action) {
+            if (resource.isEmpty() || fluid.isEmpty() || resource.getFluid() != fluid.getFluid()) return FluidStack.EMPTY;
+            return drain(resource.getAmount(), action);
+        }
+
+        @Override
+        public @NotNull FluidStack drain(int maxDrain, FluidAction action) {
+            int amount = Math.min(maxDrain, fluid.getAmount());
+            if (amount <= 0) return FluidStack.EMPTY;
+            FluidStack drained = fluid.copyWithAmount(amount);
+            if (action.execute()) {
+                fluid.shrink(amount);
+                if (fluid.isEmpty()) fluid = FluidStack.EMPTY;
+                setChanged();
+                wake(); // room to top up
+            }
+            return drained;
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package com.intelpentium.endercanteen.blockentity;
+
+import com.intelpentium.endercanteen.EnderCanteenConfig;
+import com.intelpentium.endercanteen.registry.ModBlockEntities;
+import com.intelpentium.endercanteen.server.RainClock;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.HolderLookup;
+import net.minecraft.nbt.CompoundTag;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.world.level.biome.Biome;
+import net.minecraft.world.level.block.state.BlockState;
+import net.minecraft.world.level.material.Fluids;
+import net.neoforged.neoforge.fluids.FluidStack;
+import net.neoforged.neoforge.fluids.capability.IFluidHandler;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * RainCollectingFluidTapBlockEntity – a Fluid Tap that collects rainwater into the adjacent
+ * tank, {@code rainTapMbPerMinute} mB per minute of rain while open to the sky.
+ *
+ * Nothing ticks: the tap remembers the dimension's {@link RainClock} reading at its last
+ * collection and fills what fell since whenever it is accessed through its fluid capability,
+ * on a comparator poll, or shortly after its chunk loads. Whether the tap is exposed to rain
+ * (sky access and a rainy biome) is cached until a neighbour changes. The clock only advances
+ * by the rain the tank actually took, so rain that falls while there is no tank, or while it
+ * is full, is kept and poured in once there is room.
+ */
+public class RainCollectingFluidTapBlockEntity extends FluidTapBlockEntity {
+
+    private static final int TICKS_PER_MINUTE = 1_200;
+
+    /** {@link RainClock} reading at the last collection, or -1 before the first one. */
+    private long lastRainTicks = -1;
+    /** Cached rain exposure: 1 exposed, 0 sheltered, -1 unknown. */
+    private int exposure = -1;
+
+    public RainCollectingFluidTapBlockEntity(BlockPos pos, BlockState state) {
+        super(ModBlockEntities.RAIN_COLLECTING_FLUID_TAP.get(), pos, state);
+    }
+
+    @Override
+    public @Nullable IFluidHandler getFluidHandler() {
+        collectRain();
+        return super.getFluidHandler();
+    }
+
+    /** Catches up on rain that fell while the chunk was unloaded, one tick after it loads. */
+    @Override
+    public void onLoad() {
+        super.onLoad();
+        if (level instanceof ServerLevel serverLevel) {
+            serverLevel.scheduleTick(worldPosition, getBlockState().getBlock(), 1);
+        }
+    }
+
+    /** Forgets the cached rain exposure; called on neighbour updates. */
+    public void invalidateExposure() {
+        exposure = -1;
+    }
+
+    /** Fills the adjacent tank with the rain that fell on the tap since the last collection. */
+    public void collectRain() {
+        if (!(level instanceof ServerLevel serverLevel)) return;
+        long now = RainClock.get(serverLevel).rainTicks();
+        if (lastRainTicks < 0 || now < lastRainTicks) {
+            // First collection, or the clock was reset (e.g. level data replaced)
+            lastRainTicks = now;
+            setChanged();
+            return;
+        }
+        long rained = now - lastRainTicks;
+        if (rained == 0) return;
+        if (!isExposed(serverLevel)) {
+            lastRainTicks = now;
+            setChanged();
+            return;
+        }
+
+        int mbPerMinute = EnderCanteenConfig.RAIN_TAP_MB_PER_MINUTE.get();
+        long mb = rained * mbPerMinute / TICKS_PER_MINUTE;
+        if (mb <= 0) return; // less than 1 mB so far: keep the ticks for next time
+
+        IFluidHandler tank = findAdjacentHandler();
+        if (tank == null) return; // no tank yet: keep the rain for when there is one
+        int filled = tank.fill(new FluidStack(Fluids.WATER, (int) Math.min(mb, Integer.MAX_VALUE)), IFluidHandler.FluidAction.EXECUTE);
+        if (filled <= 0) return;
+        // Advance only by the rain poured in; a full tank leaves the rest for next time
+        lastRainTicks = filled >= mb ? now : lastRainTicks + (long) filled * TICKS_PER_MINUTE / mbPerMinute;
+        setChanged();
+        refreshComparatorSignal();
+    }
+
+    private boolean isExposed(ServerLevel level) {
+        if (exposure < 0) {
+            BlockPos above = worldPosition.above();
+            exposure = level.canSeeSky(above)
+                    && level.getBiome(worldPosition).value().getPrecipitationAt(worldPosition) == Biome.Precipitation.RAIN
+                    ? 1 : 0;
+        }
+        return exposure == 1;
+    }
+
+    // -------------------------------------------------------------------------
+    // Persistence
+    // -------------------------------------------------------------------------
+
+    @Override
+    protected void saveAdditional(@NotNull CompoundTag tag, @NotNull HolderLookup.Provider registries) {
+        super.saveAdditional(tag, registries);
+        tag.putLong("LastRainTicks", lastRainTicks);
+    }
+
+    @Override
+    protected void loadAdditional(@NotNull CompoundTag tag, @NotNull HolderLookup.Provider registries) {
+        super.loadAdditional(tag, registries);
+        lastRainTicks = tag.contains("LastRainTicks") ? tag.getLong("LastRainTicks") : -1;
+    }
+}
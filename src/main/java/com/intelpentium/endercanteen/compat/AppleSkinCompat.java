@@ -1,30 +1,94 @@
 package com.intelpentium.endercanteen.compat;
 
 import com.intelpentium.endercanteen.item.CanteenItem;
+import com.intelpentium.endercanteen.network.DrinkPreviewPacket;
+import it.unimi.dsi.fastutil.ints.Int2ObjectMap;
+import it.unimi.dsi.fastutil.ints.Int2ObjectMaps;
+import it.unimi.dsi.fastutil.ints.Int2ObjectOpenHashMap;
 import net.minecraft.world.food.FoodProperties;
+import net.minecraft.world.item.ItemStack;
 import net.neoforged.api.distmarker.Dist;
 import net.neoforged.api.distmarker.OnlyIn;
+import net.neoforged.bus.api.IEventBus;
+import net.neoforged.fml.ModList;
+import net.neoforged.fml.event.config.ModConfigEvent;
+import net.neoforged.neoforge.common.NeoForge;
 import squeek.appleskin.api.event.FoodValuesEvent;
 
 /**
  * Client-only AppleSkin integration.
+ *
+ * <p>Like {@link ThirstCompat}, the AppleSkin-facing code lives in a holder class, so no
+ * AppleSkin class is loaded unless the mod is installed.
  */
 @OnlyIn(Dist.CLIENT)
 public class AppleSkinCompat {
 
-    /**
-     * Provides synthetic FoodProperties to AppleSkin so the HUD overlay shows
-     * a preview of how much thirst the canteen will restore.
-     */
-    public static void onFoodValues(FoodValuesEvent event) {
-        if (!(event.itemStack.getItem() instanceof CanteenItem)) return;
-        int thirst   = CanteenItem.calcThirst(CanteenItem.drinkMb());
-        int quenched = CanteenItem.calcQuenched(CanteenItem.drinkMb());
-        if (thirst <= 0) return;
-        event.modifiedFoodProperties = new FoodProperties.Builder()
-                .nutrition(thirst)
-                .saturationModifier(quenched / (float) (thirst * 2))
-                .build();
+    /** The mod ID used by AppleSkin. */
+    private static final String APPLESKIN_MOD_ID = "appleskin";
+
+    /** Whether AppleSkin is installed. Loads no AppleSkin classes. */
+    public static boolean isAppleSkinLoaded() {
+        return ModList.get().isLoaded(APPLESKIN_MOD_ID);
     }
-}
 
+    /** Registers the thirst preview if AppleSkin is installed; returns whether it was. */
+    public static boolean register(IEventBus modEventBus) {
+        if (!isAppleSkinLoaded()) return false;
+        Hooks.register(modEventBus);
+        return true;
+    }
+
+    private static final class Hooks {
+        /**
+         * FoodProperties per distinct (thirst, quench) pair. FoodValuesEvent fires every frame while
+         * a canteen is held or hovered, so the properties are built once and reused. Synchronized:
+         * config reloads clear it from the config thread.
+         */
+        private static final Int2ObjectMap<FoodProperties> CACHE = Int2ObjectMaps.synchronize(new Int2ObjectOpenHashMap<>());
+
+        /**
+         * Provides synthetic FoodProperties to AppleSkin so the HUD overlay shows
+         * a preview of how much thirst the canteen will restore.
+         *
+         * <p>For the held canteen the server-synced {@link DrinkPreviewPacket} is used, which
+         * already reflects purity and an RF shortfall; other canteens show the nominal values.
+         */
+        static void onFoodValues(FoodValuesEvent event) {
+            if (!(event.itemStack.getItem() instanceof CanteenItem)) return;
+
+            int thirst;
+            int quenched;
+            DrinkPreviewPacket preview = DrinkPreviewPacket.clientPreview();
+            if (preview.isPresent() && isHeldCanteen(event)) {
+                thirst   = preview.thirst();
+                quenched = preview.quenched();
+            } else {
+                thirst   = CanteenItem.calcThirst(CanteenItem.drinkMb());
+                quenched = CanteenItem.calcQuenched(CanteenItem.drinkMb());
+            }
+            if (thirst <= 0) return;
+            int key = (thirst << 16) | (quenched & 0xFFFF);
+            FoodProperties properties = CACHE.get(key);
+            if (properties == null) {
+                properties = new FoodProperties.Builder()
+                        .nutrition(thirst)
+                        .saturationModifier(quenched / (float) (thirst * 2))
+                        .build();
+                CACHE.put(key, properties);
+            }
+            event.modifiedFoodProperties = properties;
+        }
+
+        private static boolean isHeldCanteen(FoodValuesEvent event) {
+            return event.player != null
+                    && ItemStack.matches(event.itemStack, CanteenItem.heldCanteen(event.player));
+        }
+
+        static void register(IEventBus modEventBus) {
+            NeoForge.EVENT_BUS.addListener(Hooks::onFoodValues);
+            // Config reloads change the nominal values: drop the cached properties
+            modEventBus.addListener(ModConfigEvent.Reloading.class, e -> CACHE.clear());
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package com.intelpentium.endercanteen.compat;
 
+import com.intelpentium.endercanteen.fluid.DrainResult;
 import net.minecraft.core.BlockPos;
 import net.minecraft.world.entity.player.Player;
 import net.minecraft.world.level.Level;
@@ -25,4 +26,54 @@ public interface IThirstProvider {
     void addThirst(Player player, int baseThirst, int baseQuenched, @Nullable FluidStack fluid,
                    @Nullable Level level, @Nullable BlockPos sourcePos);
 
+    /**
+     * Batched drink credit: the thirst and quench of {@code drink} are accumulated per player
+     * and applied, together with a single thirst sync and the purity effects, by
+     * {@link #flushPending()} at the end of the server tick. Use this on paths that can run
+     * several times per player per tick.
+     *
+     * <p>Everything needed is in the {@link DrainResult}, purity included, so this never reads
+     * the world. The result is reused by the caller; do not keep a reference to it.
+     *
+     * <p>Providers without thirst tracking inherit the no-op behaviour of {@code addThirst}.
+     */
+    default void queueThirst(Player player, DrainResult drink) {
+        addThirst(player, drink.thirst(), drink.quenched(), drink.fluid(), null, null);
+    }
+
+    /**
+     * Applies everything queued by {@link #queueThirst} since the last flush.
+     * Called once at the end of every server tick.
+     */
+    default void flushPending() {
+    }
+
+    /**
+     * Thirst points a drink of {@code baseThirst} would restore after purity scaling,
+     * using the same purity lookup as {@link #addThirst}. Used for previews only.
+     */
+    default int scaleThirst(int baseThirst, @Nullable FluidStack fluid,
+                            @Nullable Level level, @Nullable BlockPos sourcePos) {
+        return baseThirst;
+    }
+
+    /** Quench counterpart of {@link #scaleThirst}. */
+    default int scaleQuenched(int baseQuenched, @Nullable FluidStack fluid,
+                              @Nullable Level level, @Nullable BlockPos sourcePos) {
+        return baseQuenched;
+    }
+
+    /**
+     * Purity (0 dirty – 3 purified) of {@code fluid} drained from {@code sourcePos}, as
+     * {@link #addThirst} reads it. Providers without purity treat everything as acceptable (2).
+     */
+    default int getPurity(@Nullable FluidStack fluid, @Nullable Level level, @Nullable BlockPos sourcePos) {
+        return 2;
+    }
+
+    /**
+     * Returns the player's current thirst level, or {@code -1} if thirst is not tracked.
+     */
+    int getThirst(Player player);
+
 }
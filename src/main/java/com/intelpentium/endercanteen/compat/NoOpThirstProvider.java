@@ -1,5 +1,6 @@
 package com.intelpentium.endercanteen.compat;
 
+import com.intelpentium.endercanteen.fluid.DrainResult;
 import net.minecraft.core.BlockPos;
 import net.minecraft.world.entity.player.Player;
 import net.minecraft.world.level.Level;
@@ -14,4 +15,14 @@ public class NoOpThirstProvider implements IThirstProvider {
         // No-op: Thirst Was Taken not installed
     }
 
+    @Override
+    public void queueThirst(Player player, DrainResult drink) {
+        // No-op: nothing to accumulate, and flushPending() stays empty
+    }
+
+    @Override
+    public int getThirst(Player player) {
+        return -1;
+    }
+
 }
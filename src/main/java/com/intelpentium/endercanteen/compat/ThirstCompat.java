@@ -1,34 +1,74 @@
 package com.intelpentium.endercanteen.compat;
 
+import com.intelpentium.endercanteen.fluid.DrainResult;
 import net.minecraft.core.BlockPos;
 import net.minecraft.world.entity.player.Player;
 import net.minecraft.world.level.Level;
+import net.neoforged.fml.ModList;
+import net.neoforged.neoforge.event.tick.ServerTickEvent;
 import net.neoforged.neoforge.fluids.FluidStack;
 import org.jetbrains.annotations.Nullable;
 
 /**
  * Central access point for the thirst integration.
  * Returns the appropriate provider depending on which mod is installed.
+ *
+ * <p>The provider lives in a holder class, so it – and the Thirst Was Taken classes behind
+ * it – are only loaded by the first drink, not during mod construction.
  */
 public class ThirstCompat {
 
-    private static IThirstProvider instance = null;
+    /** The mod ID used by Thirst Was Taken. */
+    private static final String THIRST_MOD_ID = "thirst";
 
-    public static void init() {
-        if (ThirstWasTakenProvider.isModLoaded()) {
-            instance = new ThirstWasTakenProvider();
-        } else {
-            instance = new NoOpThirstProvider();
-        }
+    /** Whether Thirst Was Taken is installed. Loads no compat classes. */
+    public static boolean isThirstLoaded() {
+        return ModList.get().isLoaded(THIRST_MOD_ID);
+    }
+
+    private static final class Holder {
+        static final IThirstProvider INSTANCE = isThirstLoaded() ? new ThirstWasTakenProvider() : new NoOpThirstProvider();
     }
 
     private static IThirstProvider get() {
-        if (instance == null) init();
-        return instance;
+        return Holder.INSTANCE;
     }
 
     public static void addThirst(Player player, int baseThirst, int baseQuenched, @Nullable FluidStack fluid,
                                  @Nullable Level level, @Nullable BlockPos sourcePos) {
         get().addThirst(player, baseThirst, baseQuenched, fluid, level, sourcePos);
     }
+
+    /** See {@link IThirstProvider#queueThirst}. */
+    public static void queueThirst(Player player, DrainResult drink) {
+        get().queueThirst(player, drink);
+    }
+
+    /**
+     * Flushes queued thirst changes. Registered (at lowest priority, after all other
+     * end-of-tick work) only when Thirst Was Taken is installed.
+     */
+    @SuppressWarnings("unused") // event parameter required by NeoForge event bus signature
+    public static void onServerTick(ServerTickEvent.Post event) {
+        get().flushPending();
+    }
+
+    public static int scaleThirst(int baseThirst, @Nullable FluidStack fluid,
+                                  @Nullable Level level, @Nullable BlockPos sourcePos) {
+        return get().scaleThirst(baseThirst, fluid, level, sourcePos);
+    }
+
+    public static int scaleQuenched(int baseQuenched, @Nullable FluidStack fluid,
+                                    @Nullable Level level, @Nullable BlockPos sourcePos) {
+        return get().scaleQuenched(baseQuenched, fluid, level, sourcePos);
+    }
+
+    /** See {@link IThirstProvider#getPurity}. */
+    public static int getPurity(@Nullable FluidStack fluid, @Nullable Level level, @Nullable BlockPos sourcePos) {
+        return get().getPurity(fluid, level, sourcePos);
+    }
+
+    public static int getThirst(Player player) {
+        return get().getThirst(player);
+    }
 }
@@ -1,6 +1,9 @@
 package com.intelpentium.endercanteen.compat;
 
 import com.intelpentium.endercanteen.EnderCanteenConfig;
+import com.intelpentium.endercanteen.fluid.DrainResult;
+import com.intelpentium.endercanteen.fluid.DrinkProfile;
+import com.intelpentium.endercanteen.fluid.DrinkProfiles;
 import dev.ghen.thirst.content.purity.WaterPurity;
 import dev.ghen.thirst.content.registry.ThirstComponent;
 import dev.ghen.thirst.foundation.common.capability.IThirst;
@@ -10,10 +13,14 @@ import net.minecraft.world.effect.MobEffectInstance;
 import net.minecraft.world.effect.MobEffects;
 import net.minecraft.world.entity.player.Player;
 import net.minecraft.world.level.Level;
-import net.neoforged.fml.ModList;
 import net.neoforged.neoforge.fluids.FluidStack;
 import org.jetbrains.annotations.Nullable;
 
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
 /**
  * Direct integration with "Thirst Was Taken" (dev.ghen.thirst).
  *
@@ -24,34 +31,94 @@ import org.jetbrains.annotations.Nullable;
  *   <li>2 – acceptable   → no effects, normal quench, + baseThirst thirst</li>
  *   <li>3 – purified     → no effects, full quench, + baseThirst thirst</li>
  * </ul>
+ *
+ * <p>Purity only applies to fluids whose {@link DrinkProfile} says so (water); other
+ * drinkable fluids count as acceptable. Profile effects are applied after every drink.</p>
  */
 public class ThirstWasTakenProvider implements IThirstProvider {
 
-    /** The mod ID used by Thirst Was Taken. */
-    private static final String MOD_ID = "thirst";
-
-    public static boolean isModLoaded() {
-        return ModList.get().isLoaded(MOD_ID);
-    }
+    /**
+     * Drinks queued this tick, keyed by player. Guarded by {@code this}: drinks are credited
+     * on the drinking player's level tick, which may run in parallel with other levels.
+     */
+    private final Map<Player, PendingDrink> pending = new IdentityHashMap<>();
+    /** Flushed {@link PendingDrink}s kept for reuse, so queueing a drink does not allocate. Guarded by {@code this}. */
+    private final List<PendingDrink> spare = new ArrayList<>();
 
     @Override
     public void addThirst(Player player, int baseThirst, int baseQuenched, @Nullable FluidStack fluid,
                           @Nullable Level level, @Nullable BlockPos sourcePos) {
-        int purity = getPurity(fluid, level, sourcePos);
-
-        int thirst;
-        int quenched;
-        switch (purity) {
-            case 0 -> { thirst = Math.max(1, baseThirst / 2); quenched = 0; }  // dirty
-            case 1 -> { thirst = baseThirst; quenched = baseQuenched / 2; }     // slightly dirty
-            default -> { thirst = baseThirst; quenched = baseQuenched; }        // acceptable (2) or purified (3)
-        }
+        int purity = purityOf(fluid, level, sourcePos);
 
         IThirst data = player.getData(ModAttachment.PLAYER_THIRST.get());
-        data.drink(thirst, quenched);
+        data.drink(thirstForPurity(baseThirst, purity), quenchedForPurity(baseQuenched, purity));
         data.updateThirstData(player);
 
         applyPurityEffects(player, purity);
+        DrinkProfile profile = fluid != null ? DrinkProfiles.get(fluid) : null;
+        if (profile != null) profile.applyEffects(player);
+    }
+
+    /**
+     * Accumulates the drink for the player. Purity and profile come from the
+     * {@link DrainResult}, captured when the fluid was drained; only the thirst update, the
+     * sync packet and the effects are deferred to {@link #flushPending()}.
+     */
+    @Override
+    public synchronized void queueThirst(Player player, DrainResult drink) {
+        int purity = drink.purity();
+
+        PendingDrink pendingDrink = pending.get(player);
+        if (pendingDrink == null) {
+            pendingDrink = spare.isEmpty() ? new PendingDrink() : spare.remove(spare.size() - 1);
+            pending.put(player, pendingDrink);
+        }
+        pendingDrink.thirst   += thirstForPurity(drink.thirst(), purity);
+        pendingDrink.quenched += quenchedForPurity(drink.quenched(), purity);
+        pendingDrink.worstPurity = Math.min(pendingDrink.worstPurity, purity);
+
+        DrinkProfile profile = drink.profile();
+        if (!profile.effects().isEmpty() && !pendingDrink.profiles.contains(profile)) {
+            pendingDrink.profiles.add(profile);
+        }
+    }
+
+    /** One {@code drink} + one thirst sync + at most one set of effects per player. */
+    @Override
+    public synchronized void flushPending() {
+        if (pending.isEmpty()) return;
+        for (Map.Entry<Player, PendingDrink> entry : pending.entrySet()) {
+            Player player = entry.getKey();
+            PendingDrink drink = entry.getValue();
+            spare.add(drink);
+            if (player.isRemoved()) continue; // logged out or died this tick
+
+            IThirst data = player.getData(ModAttachment.PLAYER_THIRST.get());
+            data.drink(drink.thirst, drink.quenched);
+            data.updateThirstData(player);
+
+            applyPurityEffects(player, drink.worstPurity);
+            for (DrinkProfile profile : drink.profiles) profile.applyEffects(player);
+        }
+        pending.clear();
+        for (PendingDrink drink : spare) drink.reset();
+    }
+
+    @Override
+    public int scaleThirst(int baseThirst, @Nullable FluidStack fluid,
+                           @Nullable Level level, @Nullable BlockPos sourcePos) {
+        return thirstForPurity(baseThirst, purityOf(fluid, level, sourcePos));
+    }
+
+    @Override
+    public int scaleQuenched(int baseQuenched, @Nullable FluidStack fluid,
+                             @Nullable Level level, @Nullable BlockPos sourcePos) {
+        return quenchedForPurity(baseQuenched, purityOf(fluid, level, sourcePos));
+    }
+
+    @Override
+    public int getThirst(Player player) {
+        return player.getData(ModAttachment.PLAYER_THIRST.get()).getThirst();
     }
 
     /**
@@ -63,10 +130,18 @@ public class ThirstWasTakenProvider implements IThirstProvider {
      *       (set by ThirstWasTaken's MixinLayeredCauldronBlock on cauldrons).</li>
      *   <li>Default: 2 (acceptable) – matches ThirstWasTaken's default for untagged water.</li>
      * </ol>
+     * Fluids whose drink profile does not use purity are always acceptable.
      */
-    public static int getPurity(@Nullable FluidStack fluid, @Nullable Level level, @Nullable BlockPos sourcePos) {
+    @Override
+    public int getPurity(@Nullable FluidStack fluid, @Nullable Level level, @Nullable BlockPos sourcePos) {
+        return purityOf(fluid, level, sourcePos);
+    }
+
+    private static int purityOf(@Nullable FluidStack fluid, @Nullable Level level, @Nullable BlockPos sourcePos) {
         // 1. FluidStack tag takes priority
         if (fluid != null && !fluid.isEmpty()) {
+            DrinkProfile profile = DrinkProfiles.get(fluid);
+            if (profile != null && !profile.purity()) return 2;
             Integer p = fluid.get(ThirstComponent.PURITY);
             if (p != null) return p;
         }
@@ -83,6 +158,18 @@ public class ThirstWasTakenProvider implements IThirstProvider {
         return 2;
     }
 
+    private static int thirstForPurity(int baseThirst, int purity) {
+        return purity == 0 ? Math.max(1, baseThirst / 2) : baseThirst; // dirty: half thirst
+    }
+
+    private static int quenchedForPurity(int baseQuenched, int purity) {
+        return switch (purity) {
+            case 0 -> 0;                 // dirty
+            case 1 -> baseQuenched / 2;  // slightly dirty
+            default -> baseQuenched;     // acceptable (2) or purified (3)
+        };
+    }
+
     private static void applyPurityEffects(Player player, int purity) {
         int nauseaTicks = EnderCanteenConfig.NAUSEA_DURATION_SECONDS.get() * 20;
         int hungerTicks = EnderCanteenConfig.HUNGER_DURATION_SECONDS.get() * 20;
@@ -102,4 +189,21 @@ public class ThirstWasTakenProvider implements IThirstProvider {
             // purity 2 (acceptable) and 3 (purified): no negative effects
         }
     }
+
+    /** Thirst and quench accumulated for one player within a tick. */
+    private static final class PendingDrink {
+        int thirst;
+        int quenched;
+        /** Lowest purity drunk this tick – determines the effects applied on flush. */
+        int worstPurity = 3;
+        /** Distinct profiles with effects drunk this tick. */
+        final List<DrinkProfile> profiles = new ArrayList<>(1);
+
+        void reset() {
+            thirst = 0;
+            quenched = 0;
+            worstPurity = 3;
+            profiles.clear();
+        }
+    }
 }
@@ -12,9 +12,26 @@ import net.minecraft.world.level.Level;
 import net.minecraft.world.level.block.Blocks;
 import net.minecraft.world.level.block.DispenserBlock;
 import net.minecraft.world.level.block.LayeredCauldronBlock;
+import net.minecraft.world.level.block.entity.BlockEntity;
+import net.minecraft.world.level.block.entity.DispenserBlockEntity;
 import net.minecraft.world.level.block.state.BlockState;
+import net.minecraft.world.level.material.Fluids;
+import net.neoforged.neoforge.capabilities.BlockCapabilityCache;
+import net.neoforged.neoforge.capabilities.Capabilities;
+import net.neoforged.neoforge.common.NeoForge;
+import net.neoforged.neoforge.event.server.ServerStoppedEvent;
 import net.neoforged.neoforge.fluids.CauldronFluidContent;
+import net.neoforged.neoforge.fluids.FluidStack;
+import net.neoforged.neoforge.fluids.FluidType;
+import net.neoforged.neoforge.fluids.FluidUtil;
+import net.neoforged.neoforge.fluids.capability.IFluidHandler;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.lang.ref.WeakReference;
+import java.util.Collections;
+import java.util.Map;
+import java.util.WeakHashMap;
 
 /**
  * Registers custom dispenser behaviours so that:
@@ -26,7 +43,14 @@ import org.jetbrains.annotations.NotNull;
  *       returns a water bucket.</li>
  * </ul>
  *
- * <p>All non-cauldron targets fall through to the <em>original</em> vanilla behavior that
+ * <p>With {@code dispenserTankInteraction}, the same buckets also fill and drain any block
+ * exposing an {@link IFluidHandler}, one whole bucket (1000 mB) per dispense. Each dispenser
+ * keeps a {@link BlockCapabilityCache} for the block it faces, so repeated dispensing does
+ * not look the capability up again. Cauldrons keep their BlockState fast path, and never go
+ * through their fluid handler: with {@code dispenserCauldronInteraction} off, they get the
+ * vanilla behaviour.
+ *
+ * <p>All other targets fall through to the <em>original</em> vanilla behavior that
  * was registered before this mod loaded, so existing interactions (e.g. placing/scooping
  * water/lava source blocks) continue to work unchanged.
  *
@@ -44,7 +68,8 @@ public class CauldronDispenserBehavior {
      * {@code event.enqueueWork(...)}).
      */
     public static void register() {
-        if (!EnderCanteenConfig.DISPENSER_CAULDRON_INTERACTION.get()) return;
+        if (!EnderCanteenConfig.DISPENSER_CAULDRON_INTERACTION.get()
+                && !EnderCanteenConfig.DISPENSER_TANK_INTERACTION.get()) return;
 
         // Capture the existing (vanilla) behaviors BEFORE overwriting them so they
         // can be used as fallbacks for non-cauldron targets.
@@ -57,6 +82,12 @@ public class CauldronDispenserBehavior {
 
         DispenserBlock.registerBehavior(Items.WATER_BUCKET, new FillCauldronBehavior(vanillaWaterBucket));
         DispenserBlock.registerBehavior(Items.BUCKET,       new DrainCauldronBehavior(vanillaEmptyBucket));
+        NeoForge.EVENT_BUS.addListener(CauldronDispenserBehavior::onServerStopped);
+    }
+
+    @SuppressWarnings("unused") // event parameter required by NeoForge event bus signature
+    private static void onServerStopped(ServerStoppedEvent event) {
+        TANK_CACHES.clear();
     }
 
     // -------------------------------------------------------------------------
@@ -70,6 +101,7 @@ public class CauldronDispenserBehavior {
      *       completely (all levels) and returns an empty bucket – identical to vanilla
      *       hand-use behaviour.</li>
      *   <li>If the cauldron is already full, the item is dispensed normally (vanilla ejection).</li>
+     *   <li>If the target is a tank with room for a whole bucket, the water goes into the tank.</li>
      *   <li>For all other target blocks the vanilla dispense logic is used as fallback.</li>
      * </ul>
      */
@@ -89,10 +121,12 @@ public class CauldronDispenserBehavior {
             BlockPos targetPos = source.pos().relative(facing);
             BlockState targetState = level.getBlockState(targetPos);
 
+            // Cauldrons never take the tank path: with cauldron interaction off they stay vanilla.
             CauldronFluidContent content = CauldronFluidContent.getForBlock(targetState.getBlock());
+            boolean cauldrons = EnderCanteenConfig.DISPENSER_CAULDRON_INTERACTION.get();
 
             // Target is an empty cauldron – fill completely.
-            if (targetState.is(Blocks.CAULDRON)) {
+            if (cauldrons && content != null && targetState.is(Blocks.CAULDRON)) {
                 level.setBlockAndUpdate(targetPos,
                         Blocks.WATER_CAULDRON.defaultBlockState()
                                 .setValue(LayeredCauldronBlock.LEVEL, LayeredCauldronBlock.MAX_FILL_LEVEL));
@@ -100,7 +134,7 @@ public class CauldronDispenserBehavior {
             }
 
             // Target already has water cauldron content – fill to max if not already full.
-            if (content != null && content.fluid.isSame(net.minecraft.world.level.material.Fluids.WATER)) {
+            if (cauldrons && content != null && content.fluid.isSame(Fluids.WATER)) {
                 int current = content.currentLevel(targetState);
                 if (current < content.maxLevel) {
                     // Set to max level, preserving all other BlockState properties (e.g. BLOCK_PURITY).
@@ -115,6 +149,18 @@ public class CauldronDispenserBehavior {
                 // Cauldron is already full → fall through to vanilla (eject the bucket).
             }
 
+            // Target is a tank – pour the whole bucket in, or nothing.
+            if (content == null) {
+                IFluidHandler handler = tankAt(source, targetPos, facing);
+                if (handler != null) {
+                    FluidStack water = new FluidStack(Fluids.WATER, FluidType.BUCKET_VOLUME);
+                    if (handler.fill(water, IFluidHandler.FluidAction.SIMULATE) == FluidType.BUCKET_VOLUME) {
+                        handler.fill(water, IFluidHandler.FluidAction.EXECUTE);
+                        return new ItemStack(Items.BUCKET);
+                    }
+                }
+            }
+
             // Fallback: delegate to the original vanilla behavior (places water source block etc.).
             return fallback.dispense(source, stack);
         }
@@ -129,6 +175,8 @@ public class CauldronDispenserBehavior {
      * <ul>
      *   <li>If the target is a water cauldron with any water in it, empties it completely
      *       and returns a water bucket – identical to vanilla hand-use behaviour.</li>
+     *   <li>If the target is a tank holding at least a bucket of a fluid that has a bucket
+     *       item, one bucket is drained into the filled bucket.</li>
      *   <li>For all other target blocks the vanilla dispense logic is used as fallback.</li>
      * </ul>
      */
@@ -148,9 +196,11 @@ public class CauldronDispenserBehavior {
             BlockPos targetPos = source.pos().relative(facing);
             BlockState targetState = level.getBlockState(targetPos);
 
+            // Cauldrons never take the tank path: with cauldron interaction off they stay vanilla.
             CauldronFluidContent content = CauldronFluidContent.getForBlock(targetState.getBlock());
 
-            if (content != null && content.fluid.isSame(net.minecraft.world.level.material.Fluids.WATER)) {
+            if (EnderCanteenConfig.DISPENSER_CAULDRON_INTERACTION.get()
+                    && content != null && content.fluid.isSame(Fluids.WATER)) {
                 int current = content.currentLevel(targetState);
                 if (current > 0) {
                     // Empty the cauldron completely, like using a bucket by hand.
@@ -159,26 +209,68 @@ public class CauldronDispenserBehavior {
                 }
             }
 
+            // Target is a tank – take out one whole bucket of whatever it holds, if that fluid has a bucket.
+            if (content == null) {
+                IFluidHandler handler = tankAt(source, targetPos, facing);
+                if (handler != null) {
+                    FluidStack simulated = handler.drain(FluidType.BUCKET_VOLUME, IFluidHandler.FluidAction.SIMULATE);
+                    ItemStack filled = simulated.getAmount() == FluidType.BUCKET_VOLUME
+                            ? FluidUtil.getFilledBucket(simulated) : ItemStack.EMPTY;
+                    if (!filled.isEmpty()) {
+                        FluidStack drained = handler.drain(simulated, IFluidHandler.FluidAction.EXECUTE);
+                        if (drained.getAmount() == FluidType.BUCKET_VOLUME) {
+                            return consumeWithRemainder(source, stack, filled);
+                        }
+                    }
+                }
+            }
+
             // Fallback: delegate to the original vanilla behavior (scoops water/lava source blocks etc.).
             return fallback.dispense(source, stack);
         }
     }
-}
-
-
-
-
-
-
-
-
-
-
-
-
-
-
-
 
+    // -------------------------------------------------------------------------
+    // Tank access
+    // -------------------------------------------------------------------------
 
+    /**
+     * Capability cache per dispenser. Weak keys so unloaded dispensers are dropped – the caches
+     * only reference their dispenser weakly, or they would keep it, and its level, alive – and
+     * cleared when the server stops. Synchronized: dispensers in different levels fire on
+     * different threads.
+     */
+    private static final Map<BlockEntity, BlockCapabilityCache<IFluidHandler, Direction>> TANK_CACHES =
+            Collections.synchronizedMap(new WeakHashMap<>());
+
+    /** The fluid handler the dispenser faces, through the dispenser's own capability cache. */
+    @Nullable
+    private static IFluidHandler tankAt(BlockSource source, BlockPos targetPos, Direction facing) {
+        if (!EnderCanteenConfig.DISPENSER_TANK_INTERACTION.get()) return null;
+        DispenserBlockEntity dispenser = source.blockEntity();
+        BlockCapabilityCache<IFluidHandler, Direction> cache = TANK_CACHES.get(dispenser);
+        // Recreated if the dispenser was turned (e.g. with a wrench) or moved to another level.
+        if (cache == null || !cache.pos().equals(targetPos) || cache.level() != source.level()) {
+            WeakReference<DispenserBlockEntity> dispenserRef = new WeakReference<>(dispenser);
+            cache = BlockCapabilityCache.create(Capabilities.FluidHandler.BLOCK, source.level(), targetPos,
+                    facing.getOpposite(), () -> {
+                        DispenserBlockEntity owner = dispenserRef.get();
+                        return owner != null && !owner.isRemoved();
+                    }, () -> {});
+            TANK_CACHES.put(dispenser, cache);
+        }
+        return cache.getCapability();
+    }
 
+    /** Like vanilla: the filled bucket replaces a single empty one, or goes into the dispenser (or is dropped). */
+    private static ItemStack consumeWithRemainder(BlockSource source, ItemStack stack, ItemStack remainder) {
+        stack.shrink(1);
+        if (stack.isEmpty()) return remainder;
+        ItemStack leftover = source.blockEntity().insertItem(remainder);
+        if (!leftover.isEmpty()) {
+            Direction facing = source.state().getValue(DispenserBlock.FACING);
+            DefaultDispenseItemBehavior.spawnItem(source.level(), leftover, 6, facing, DispenserBlock.getDispensePosition(source));
+        }
+        return stack;
+    }
+}
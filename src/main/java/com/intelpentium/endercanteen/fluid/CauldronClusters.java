@@ -0,0 +1,275 @@
+package com.intelpentium.endercanteen.fluid;
+
+import com.intelpentium.endercanteen.EnderCanteenConfig;
+import dev.ghen.thirst.content.purity.WaterPurity;
+import dev.ghen.thirst.content.registry.ThirstComponent;
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
+import it.unimi.dsi.fastutil.longs.LongSet;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.Direction;
+import net.minecraft.resources.ResourceKey;
+import net.minecraft.world.level.Level;
+import net.minecraft.world.level.block.Blocks;
+import net.minecraft.world.level.block.state.BlockState;
+import net.minecraft.world.level.material.Fluid;
+import net.minecraft.world.level.material.Fluids;
+import net.neoforged.bus.api.IEventBus;
+import net.neoforged.neoforge.event.TagsUpdatedEvent;
+import net.neoforged.neoforge.event.level.BlockEvent;
+import net.neoforged.neoforge.event.level.LevelEvent;
+import net.neoforged.neoforge.event.server.ServerStoppedEvent;
+import net.neoforged.neoforge.fluids.CauldronFluidContent;
+import net.neoforged.neoforge.fluids.FluidStack;
+import net.neoforged.neoforge.fluids.capability.IFluidHandler.FluidAction;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Treats a group of adjacent cauldrons as a single reservoir for a canteen linked
+ * to any one of them (the <em>anchor</em>).
+ *
+ * <p>The members of a cluster are found once with a flood fill across the six faces,
+ * bounded by {@link EnderCanteenConfig#CAULDRON_CLUSTER_MAX_SIZE}, and cached per anchor.
+ * Cauldrons holding a drinkable fluid ({@link DrinkProfiles}) and empty cauldrons are
+ * members; anything else ends the cluster. The cached
+ * topology is only invalidated when a member stops being a cluster cauldron or a block
+ * on the cluster's border becomes one – a cauldron changing its water level (rain,
+ * drinking, buckets) keeps the cache intact. Changes are observed through
+ * {@link BlockEvent.NeighborNotifyEvent} with a single hash lookup per block update.
+ *
+ * <p>Draining uses the same {@link CauldronFluidContent} BlockState fast path as a single
+ * linked cauldron, so {@code BLOCK_PURITY} and any other BlockState property are preserved.
+ * Positions in unloaded chunks are neither explored nor drained.
+ */
+public class CauldronClusters {
+
+    /** Concurrent: each level's clusters are only touched from that level's tick. */
+    private static final Map<ResourceKey<Level>, LevelClusters> BY_LEVEL = new ConcurrentHashMap<>();
+
+    public static void register(IEventBus bus) {
+        bus.addListener(CauldronClusters::onNeighborNotify);
+        bus.addListener(CauldronClusters::onLevelUnload);
+        bus.addListener(CauldronClusters::onServerStopped);
+        bus.addListener(CauldronClusters::onTagsUpdated);
+    }
+
+    // -------------------------------------------------------------------------
+    // Draining
+    // -------------------------------------------------------------------------
+
+    /**
+     * Drains up to {@code mb} of a drinkable fluid from the cauldron at {@code anchor} and, if
+     * clustering is enabled, from the cauldrons connected to it. Each cauldron gives up all of its
+     * levels ({@code cauldronDrainFull}) or one level, in flood-fill order, until the drink is
+     * covered. One drink never mixes fluids: the first drinkable cauldron decides the fluid.
+     *
+     * <p>Only the first cauldron may give more than the drink asks for, as a single linked
+     * cauldron always has; after it, levels that would overshoot what is still missing stay in
+     * their cauldron. A 500 mB drink from one-level (333 mB) cauldrons therefore takes one level,
+     * not two.
+     *
+     * <p>The purity of the drained cauldrons is read before they are modified; the lowest
+     * value is stored as {@link ThirstComponent#PURITY} on the returned stack.
+     *
+     * @return the drained fluid (capped at {@code mb}; less than that if the next level would
+     *         overshoot), or null if the cluster holds none
+     */
+    @Nullable
+    public static FluidStack drain(Level level, BlockPos anchor, int mb, FluidAction action) {
+        // Without clustering the anchor is the only member; no array for it.
+        long[] members = EnderCanteenConfig.CAULDRON_CLUSTER_ENABLED.get() ? getCluster(level, anchor).members : null;
+        int memberCount = members != null ? members.length : 1;
+
+        boolean drainFull = EnderCanteenConfig.CAULDRON_DRAIN_FULL.get();
+        BlockPos.MutableBlockPos cursor = new BlockPos.MutableBlockPos();
+        int collectedMb = 0;
+        int purity = Integer.MAX_VALUE;
+        Fluid fluid = null;
+
+        for (int i = 0; i < memberCount && collectedMb < mb; i++) {
+            if (members != null) cursor.set(members[i]);
+            else cursor.set(anchor);
+            if (!level.isLoaded(cursor)) continue;
+
+            BlockState state = level.getBlockState(cursor);
+            CauldronFluidContent cauldron = CauldronFluidContent.getForBlock(state.getBlock());
+            if (cauldron == null || !DrinkProfiles.isDrinkable(cauldron.fluid)) continue;
+            if (fluid != null && cauldron.fluid != fluid) continue;
+
+            int currentLevel = cauldron.currentLevel(state);
+            if (currentLevel <= 0) continue;
+
+            int oneLevelMb = cauldron.totalAmount / cauldron.maxLevel;
+            if (oneLevelMb <= 0) continue;
+
+            int levelsToRemove = drainFull ? currentLevel : 1;
+            if (collectedMb > 0 && oneLevelMb * levelsToRemove > mb - collectedMb) continue; // would overshoot
+            int newLevel = currentLevel - levelsToRemove;
+            if (newLevel > 0 && cauldron.levelProperty == null) continue; // cannot partially drain
+
+            fluid = cauldron.fluid;
+            int blockPurity = WaterPurity.getBlockPurity(state);
+            if (blockPurity >= 0) purity = Math.min(purity, blockPurity);
+
+            if (action.execute()) {
+                BlockState newState = newLevel == 0
+                        ? Blocks.CAULDRON.defaultBlockState()
+                        : state.setValue(cauldron.levelProperty, newLevel); // preserves BLOCK_PURITY and all other properties
+                level.setBlockAndUpdate(cursor.immutable(), newState);
+            }
+            collectedMb += oneLevelMb * levelsToRemove;
+        }
+
+        if (collectedMb <= 0) return null;
+        FluidStack drained = new FluidStack(fluid, Math.min(collectedMb, mb));
+        if (purity != Integer.MAX_VALUE) {
+            drained.set(ThirstComponent.PURITY, purity);
+        }
+        return drained;
+    }
+
+    /**
+     * Returns the number of cauldrons in the cluster anchored at {@code anchor}
+     * (1 when clustering is disabled).
+     */
+    public static int clusterSize(Level level, BlockPos anchor) {
+        if (!EnderCanteenConfig.CAULDRON_CLUSTER_ENABLED.get()) return 1;
+        return getCluster(level, anchor).members.length;
+    }
+
+    /** True for blocks that can be part of a cluster: drinkable-fluid cauldrons and empty cauldrons. */
+    public static boolean isClusterBlock(BlockState state) {
+        CauldronFluidContent content = CauldronFluidContent.getForBlock(state.getBlock());
+        return content != null && (content.fluid == Fluids.EMPTY || DrinkProfiles.isDrinkable(content.fluid));
+    }
+
+    // -------------------------------------------------------------------------
+    // Topology cache
+    // -------------------------------------------------------------------------
+
+    private static Cluster getCluster(Level level, BlockPos anchor) {
+        LevelClusters clusters = BY_LEVEL.computeIfAbsent(level.dimension(), k -> new LevelClusters());
+        Cluster cluster = clusters.byAnchor.get(anchor.asLong());
+        if (cluster == null) {
+            cluster = floodFill(level, anchor);
+            clusters.add(cluster);
+        }
+        return cluster;
+    }
+
+    /** Bounded breadth-first search from the anchor across all six faces. */
+    private static Cluster floodFill(Level level, BlockPos anchor) {
+        int maxSize = EnderCanteenConfig.CAULDRON_CLUSTER_MAX_SIZE.get();
+        List<BlockPos> members = new ArrayList<>();
+        LongSet visited = new LongOpenHashSet();
+        LongSet frontier = new LongOpenHashSet();
+        ArrayDeque<BlockPos> queue = new ArrayDeque<>();
+
+        queue.add(anchor);
+        visited.add(anchor.asLong());
+        while (!queue.isEmpty() && members.size() < maxSize) {
+            BlockPos pos = queue.poll();
+            if (!level.isLoaded(pos) || !isClusterBlock(level.getBlockState(pos))) {
+                if (!pos.equals(anchor)) frontier.add(pos.asLong());
+                continue;
+            }
+            members.add(pos);
+            for (Direction dir : Direction.values()) {
+                BlockPos next = pos.relative(dir);
+                if (visited.add(next.asLong())) queue.add(next);
+            }
+        }
+
+        long[] memberArray = new long[members.size()];
+        for (int i = 0; i < memberArray.length; i++) memberArray[i] = members.get(i).asLong();
+        // The anchor is always a member, even if it is currently not a cauldron, so that a
+        // replaced anchor block invalidates the cache like any other member.
+        if (memberArray.length == 0) memberArray = new long[]{anchor.asLong()};
+        return new Cluster(anchor.asLong(), memberArray, frontier.toLongArray());
+    }
+
+    // -------------------------------------------------------------------------
+    // Invalidation
+    // -------------------------------------------------------------------------
+
+    private static void onNeighborNotify(BlockEvent.NeighborNotifyEvent event) {
+        if (!(event.getLevel() instanceof Level level) || level.isClientSide()) return;
+        LevelClusters clusters = BY_LEVEL.get(level.dimension());
+        if (clusters == null) return;
+
+        long pos = event.getPos().asLong();
+        List<Cluster> asMember = clusters.memberWatch.get(pos);
+        List<Cluster> asFrontier = clusters.frontierWatch.get(pos);
+        if (asMember == null && asFrontier == null) return;
+
+        boolean clusterBlock = isClusterBlock(event.getState());
+        if (asMember != null && !clusterBlock) clusters.invalidateAll(asMember);
+        if (asFrontier != null && clusterBlock) clusters.invalidateAll(asFrontier);
+    }
+
+    private static void onLevelUnload(LevelEvent.Unload event) {
+        if (event.getLevel() instanceof Level level && !level.isClientSide()) {
+            BY_LEVEL.remove(level.dimension());
+        }
+    }
+
+    @SuppressWarnings("unused") // event parameter required by NeoForge event bus signature
+    private static void onServerStopped(ServerStoppedEvent event) {
+        BY_LEVEL.clear();
+    }
+
+    /** A datapack reload may change which cauldrons are drinkable, and with it every cluster. */
+    private static void onTagsUpdated(TagsUpdatedEvent event) {
+        if (event.getUpdateCause() == TagsUpdatedEvent.UpdateCause.SERVER_DATA_LOAD) BY_LEVEL.clear();
+    }
+
+    // -------------------------------------------------------------------------
+    // Data
+    // -------------------------------------------------------------------------
+
+    private record Cluster(long anchor, long[] members, long[] frontier) {}
+
+    /** Cached clusters of one dimension plus reverse indexes for invalidation. */
+    private static final class LevelClusters {
+
+        final Long2ObjectMap<Cluster> byAnchor = new Long2ObjectOpenHashMap<>();
+        /** Member position → clusters containing it. */
+        final Long2ObjectMap<List<Cluster>> memberWatch = new Long2ObjectOpenHashMap<>();
+        /** Border position (non-cauldron neighbour of a member) → clusters it would join. */
+        final Long2ObjectMap<List<Cluster>> frontierWatch = new Long2ObjectOpenHashMap<>();
+
+        void add(Cluster cluster) {
+            byAnchor.put(cluster.anchor(), cluster);
+            for (long pos : cluster.members()) memberWatch.computeIfAbsent(pos, k -> new ArrayList<>()).add(cluster);
+            for (long pos : cluster.frontier()) frontierWatch.computeIfAbsent(pos, k -> new ArrayList<>()).add(cluster);
+        }
+
+        void invalidateAll(List<Cluster> clusters) {
+            // Copy: removing a cluster mutates the very list being iterated.
+            for (Cluster cluster : clusters.toArray(new Cluster[0])) remove(cluster);
+        }
+
+        void remove(Cluster cluster) {
+            if (byAnchor.get(cluster.anchor()) != cluster) return;
+            byAnchor.remove(cluster.anchor());
+            unwatch(memberWatch, cluster.members(), cluster);
+            unwatch(frontierWatch, cluster.frontier(), cluster);
+        }
+
+        private static void unwatch(Long2ObjectMap<List<Cluster>> index, long[] positions, Cluster cluster) {
+            for (long pos : positions) {
+                List<Cluster> watchers = index.get(pos);
+                if (watchers == null) continue;
+                watchers.remove(cluster);
+                if (watchers.isEmpty()) index.remove(pos);
+            }
+        }
+    }
+}
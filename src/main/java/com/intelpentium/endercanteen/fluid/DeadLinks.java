@@ -0,0 +1,151 @@
+package com.intelpentium.endercanteen.fluid;
+
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.longs.LongArrayList;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.Direction;
+import net.minecraft.resources.ResourceKey;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.world.level.Level;
+import net.minecraft.world.level.block.state.BlockState;
+import net.neoforged.bus.api.IEventBus;
+import net.neoforged.neoforge.capabilities.BlockCapabilityCache;
+import net.neoforged.neoforge.capabilities.Capabilities;
+import net.neoforged.neoforge.event.level.BlockEvent;
+import net.neoforged.neoforge.event.server.ServerStoppedEvent;
+import net.neoforged.neoforge.event.tick.LevelTickEvent;
+import net.neoforged.neoforge.fluids.capability.IFluidHandler;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Negative cache of link targets known to have no fluid handler, so that clicking a canteen
+ * linked to a broken or removed tank fails without looking the block up again.
+ *
+ * <p>A position is marked dead when a drink finds no handler there, or at the end of the tick
+ * in which a block with a block entity or a cauldron was broken there and left no handler
+ * behind. Fluid Taps are never marked: they proxy a neighbour and have no handler only until a
+ * tank is placed next to them. A dead position is revived – and looked up normally again – as soon as
+ * <ul>
+ *   <li>NeoForge invalidates the capabilities at the position (block entity placed, chunk
+ *       reloaded, multiblock formed, ...), through a {@link BlockCapabilityCache} listener;</li>
+ *   <li>a block is placed there; or</li>
+ *   <li>{@value #TTL_SECONDS} seconds have passed, for changes that raise neither.</li>
+ * </ul>
+ *
+ * <p>Entries are per dimension and only touched on that dimension's level thread.
+ */
+public class DeadLinks {
+
+    private static final int TTL_SECONDS = 30;
+    private static final long TTL_NANOS = TTL_SECONDS * 1_000_000_000L;
+
+    private static final Map<ResourceKey<Level>, PerLevel> BY_LEVEL = new ConcurrentHashMap<>();
+
+    public static void register(IEventBus bus) {
+        bus.addListener(DeadLinks::onBlockBroken);
+        bus.addListener(DeadLinks::onBlockPlaced);
+        bus.addListener(DeadLinks::onLevelTick);
+        bus.addListener(DeadLinks::onServerStopped);
+    }
+
+    // -------------------------------------------------------------------------
+    // Queries
+    // -------------------------------------------------------------------------
+
+    /** True if {@code pos} in {@code level} is known to have no fluid handler. Call on the level's thread. */
+    public static boolean isDead(ServerLevel level, BlockPos pos) {
+        PerLevel perLevel = BY_LEVEL.get(level.dimension());
+        if (perLevel == null || perLevel.dead.isEmpty()) return false;
+        long key = pos.asLong();
+        Entry entry = perLevel.dead.get(key);
+        if (entry == null) return false;
+        if (System.nanoTime() - entry.markedAt < TTL_NANOS) return true;
+        perLevel.revive(key);
+        return false;
+    }
+
+    /** Records that there is no fluid handler at {@code pos}. Call on the level's thread. */
+    public static void markDead(ServerLevel level, BlockPos pos) {
+        PerLevel perLevel = BY_LEVEL.computeIfAbsent(level.dimension(), k -> new PerLevel());
+        long key = pos.asLong();
+        if (perLevel.dead.containsKey(key)) return;
+        Entry entry = new Entry(System.nanoTime());
+        perLevel.dead.put(key, entry);
+        // Revives the entry when a handler may have appeared; kept registered while the entry lives.
+        entry.cache = BlockCapabilityCache.create(Capabilities.FluidHandler.BLOCK, level, pos.immutable(), null,
+                () -> entry.live, () -> perLevel.revive(key));
+    }
+
+    // -------------------------------------------------------------------------
+    // Events
+    // -------------------------------------------------------------------------
+
+    /** Queues blocks that may have been a tank; whether a handler is left is checked after removal. */
+    private static void onBlockBroken(BlockEvent.BreakEvent event) {
+        if (!(event.getLevel() instanceof ServerLevel level)) return;
+        BlockState state = event.getState();
+        if (!state.hasBlockEntity() && !CauldronClusters.isClusterBlock(state)) return;
+        BY_LEVEL.computeIfAbsent(level.dimension(), k -> new PerLevel()).broken.add(event.getPos().asLong());
+    }
+
+    private static void onBlockPlaced(BlockEvent.EntityPlaceEvent event) {
+        if (!(event.getLevel() instanceof ServerLevel level)) return;
+        PerLevel perLevel = BY_LEVEL.get(level.dimension());
+        if (perLevel != null) perLevel.revive(event.getPos().asLong());
+    }
+
+    private static void onLevelTick(LevelTickEvent.Post event) {
+        if (!(event.getLevel() instanceof ServerLevel level)) return;
+        PerLevel perLevel = BY_LEVEL.get(level.dimension());
+        if (perLevel == null || perLevel.broken.isEmpty()) return;
+        BlockPos.MutableBlockPos cursor = new BlockPos.MutableBlockPos();
+        for (int i = 0; i < perLevel.broken.size(); i++) {
+            cursor.set(perLevel.broken.getLong(i));
+            if (level.isLoaded(cursor) && !hasHandler(level, cursor)) markDead(level, cursor);
+        }
+        perLevel.broken.clear();
+    }
+
+    private static boolean hasHandler(Level level, BlockPos pos) {
+        if (level.getCapability(Capabilities.FluidHandler.BLOCK, pos, null) != null) return true;
+        for (Direction dir : Direction.values()) {
+            if (level.getCapability(Capabilities.FluidHandler.BLOCK, pos, dir) != null) return true;
+        }
+        return false;
+    }
+
+    @SuppressWarnings("unused") // event parameter required by NeoForge event bus signature
+    private static void onServerStopped(ServerStoppedEvent event) {
+        BY_LEVEL.clear();
+    }
+
+    // -------------------------------------------------------------------------
+    // State
+    // -------------------------------------------------------------------------
+
+    private static final class PerLevel {
+        final Long2ObjectMap<Entry> dead = new Long2ObjectOpenHashMap<>();
+        /** Positions broken this tick, checked at the end of it. */
+        final LongArrayList broken = new LongArrayList();
+
+        void revive(long key) {
+            Entry entry = dead.remove(key);
+            if (entry != null) entry.live = false; // lets the capability cache drop its listener
+        }
+    }
+
+    private static final class Entry {
+        final long markedAt;
+        boolean live = true;
+        /** Held so that its invalidation listener stays registered. */
+        @SuppressWarnings("unused")
+        BlockCapabilityCache<IFluidHandler, Direction> cache;
+
+        Entry(long markedAt) {
+            this.markedAt = markedAt;
+        }
+    }
+}
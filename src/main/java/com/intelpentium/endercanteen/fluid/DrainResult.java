@@ -0,0 +1,109 @@
+package com.intelpentium.endercanteen.fluid;
+
+import dev.ghen.thirst.content.registry.ThirstComponent;
+import net.neoforged.neoforge.fluids.FluidStack;
+
+/**
+ * One drink's drain, captured when the fluid leaves the tank: the fluid and its
+ * {@link DrinkProfile}, the amount that counts, the purity, where it came from and – once
+ * computed – the thirst and quench it restores.
+ *
+ * <p>Purity is resolved here from the stack's {@link ThirstComponent#PURITY}. Cauldron drains
+ * fill that component from the block state before they change it, so crediting the drink
+ * never reads the world again and cannot see an already emptied cauldron. Fluids whose
+ * profile does not use purity count as acceptable ({@value #DEFAULT_PURITY}).
+ *
+ * <p>Mutable and reused: the drink path fills one instance per thread ({@link #forThread()}).
+ * Anything that keeps a result beyond the current drink takes a {@link #copy()}.
+ */
+public final class DrainResult {
+
+    public enum Source {
+        /** Drained through an {@code IFluidHandler}. */
+        HANDLER,
+        /** Drained from cauldron block states ({@link DrainStrategies#CAULDRON}). */
+        CAULDRON
+    }
+
+    /** Purity of water without a purity component (Thirst Was Taken's "acceptable"). */
+    public static final int DEFAULT_PURITY = 2;
+
+    private static final ThreadLocal<DrainResult> PER_THREAD = ThreadLocal.withInitial(DrainResult::new);
+
+    private FluidStack fluid = FluidStack.EMPTY;
+    private DrinkProfile profile = DrinkProfile.WATER;
+    private Source source = Source.HANDLER;
+    private int amount;
+    private int purity = DEFAULT_PURITY;
+    private int thirst;
+    private int quenched;
+
+    /** This thread's reusable instance. */
+    public static DrainResult forThread() {
+        return PER_THREAD.get();
+    }
+
+    /**
+     * Captures a drain. {@code amount} is how much of {@code drained} counts for the drink
+     * (handlers with coarse increments may hand out more). Resets thirst and quench.
+     */
+    public DrainResult set(FluidStack drained, int amount, Source source) {
+        DrinkProfile drainedProfile = DrinkProfiles.get(drained);
+        this.fluid = drained;
+        this.profile = drainedProfile != null ? drainedProfile : DrinkProfile.WATER; // table replaced mid-drink
+        this.source = source;
+        this.amount = amount;
+        Integer component = profile.purity() ? drained.get(ThirstComponent.PURITY) : null;
+        this.purity = component != null ? component : DEFAULT_PURITY;
+        this.thirst = 0;
+        this.quenched = 0;
+        return this;
+    }
+
+    /** Sets the thirst and quench the drink restores (before purity scaling). */
+    public void setPoints(int thirst, int quenched) {
+        this.thirst = thirst;
+        this.quenched = quenched;
+    }
+
+    public FluidStack fluid() {
+        return fluid;
+    }
+
+    public DrinkProfile profile() {
+        return profile;
+    }
+
+    public Source source() {
+        return source;
+    }
+
+    public int amount() {
+        return amount;
+    }
+
+    public int purity() {
+        return purity;
+    }
+
+    public int thirst() {
+        return thirst;
+    }
+
+    public int quenched() {
+        return quenched;
+    }
+
+    /** A detached copy, for results handed to another tick. */
+    public DrainResult copy() {
+        DrainResult copy = new DrainResult();
+        copy.fluid = fluid;
+        copy.profile = profile;
+        copy.source = source;
+        copy.amount = amount;
+        copy.purity = purity;
+        copy.thirst = thirst;
+        copy.quenched = quenched;
+        return copy;
+    }
+}
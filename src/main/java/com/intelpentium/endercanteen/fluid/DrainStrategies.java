@@ -0,0 +1,323 @@
+package com.intelpentium.endercanteen.fluid;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonElement;
+import com.intelpentium.endercanteen.EnderCanteen;
+import com.mojang.serialization.Codec;
+import com.mojang.serialization.JsonOps;
+import com.mojang.serialization.codecs.RecordCodecBuilder;
+import it.unimi.dsi.fastutil.objects.Reference2ObjectOpenHashMap;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.Holder;
+import net.minecraft.core.HolderSet;
+import net.minecraft.core.Registry;
+import net.minecraft.core.RegistryAccess;
+import net.minecraft.core.registries.BuiltInRegistries;
+import net.minecraft.core.registries.Registries;
+import net.minecraft.resources.ResourceLocation;
+import net.minecraft.server.packs.resources.ResourceManager;
+import net.minecraft.server.packs.resources.SimpleJsonResourceReloadListener;
+import net.minecraft.tags.TagKey;
+import net.minecraft.util.ExtraCodecs;
+import net.minecraft.util.profiling.ProfilerFiller;
+import net.minecraft.world.level.Level;
+import net.minecraft.world.level.block.Block;
+import net.minecraft.world.level.block.entity.BlockEntity;
+import net.minecraft.world.level.block.entity.BlockEntityType;
+import net.minecraft.world.level.block.state.BlockState;
+import net.neoforged.bus.api.IEventBus;
+import net.neoforged.neoforge.event.AddReloadListenerEvent;
+import net.neoforged.neoforge.event.TagsUpdatedEvent;
+import net.neoforged.neoforge.fluids.CauldronFluidContent;
+import net.neoforged.neoforge.fluids.FluidStack;
+import net.neoforged.neoforge.fluids.capability.IFluidHandler;
+import net.neoforged.neoforge.fluids.capability.IFluidHandler.FluidAction;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+
+/**
+ * Registry of {@link DrainStrategy drain strategies} per {@link Block} and per
+ * {@link BlockEntityType}.
+ *
+ * <p>Mods register from {@code FMLCommonSetupEvent#enqueueWork}:
+ * <pre>{@code
+ * DrainStrategies.register(MyBlocks.TANK.get(), DrainStrategies.EXACT);
+ * DrainStrategies.register(MyBlockEntities.TANK.get(), (level, pos, handler, mb, action) -> ...);
+ * }</pre>
+ * Datapacks assign named strategies in {@code data/<namespace>/endercanteen/drain_strategies/*.json}:
+ * <pre>{@code
+ * {
+ *   "strategy": "endercanteen:exact",         // a registered strategy id
+ *   "blocks": ["mymod:tank", "#mymod:tanks"], // block ids and/or #tags, optional
+ *   "block_entities": ["mymod:tank"]          // block entity type ids, optional
+ * }
+ * }</pre>
+ * Datapack entries override code registrations. Every block with {@link CauldronFluidContent}
+ * for a drinkable fluid ({@link DrinkProfiles}) gets {@link #CAULDRON} unless something else was
+ * assigned to it; lava, powder snow and empty cauldrons keep the default.
+ *
+ * <p>The assignments are compiled into identity maps on {@link TagsUpdatedEvent}, so resolving
+ * the strategy of a linked block is one lookup on its block and, failing that, one on its
+ * block entity type. The compiled maps are replaced as a whole and never mutated.
+ */
+public class DrainStrategies extends SimpleJsonResourceReloadListener {
+
+    public static final String DIRECTORY = "endercanteen/drain_strategies";
+
+    /**
+     * Default: tries the exact amount, then finds the handler's minimum drain increment with
+     * doubling SIMULATE probes. Works with handlers that only drain in coarse steps.
+     */
+    public static final DrainStrategy PROBING = (level, pos, handler, mb, action) -> drainProbing(handler, mb, action);
+
+    /** For tanks that drain any amount: one drain call per tank, no probing. */
+    public static final DrainStrategy EXACT = (level, pos, handler, mb, action) -> drainExact(handler, mb, action);
+
+    /**
+     * Vanilla-style cauldrons: manipulates the BlockState directly instead of going through
+     * {@code CauldronWrapper}, draining across adjacent cauldrons as one reservoir (see
+     * {@link CauldronClusters}). {@code CauldronWrapper.updateLevel()} calls
+     * {@code block.defaultBlockState()} and then sets only the level property – silently
+     * dropping any extra BlockState properties added by mods (e.g. ThirstWasTaken's
+     * BLOCK_PURITY), which empties the cauldron completely.
+     */
+    public static final DrainStrategy CAULDRON = new DrainStrategy() {
+        @Override
+        public @Nullable FluidStack drain(Level level, BlockPos pos, IFluidHandler handler, int mb, FluidAction action) {
+            return CauldronClusters.isClusterBlock(level.getBlockState(pos))
+                    ? CauldronClusters.drain(level, pos, mb, action) : null;
+        }
+
+        @Override
+        public boolean monitored() {
+            return false; // never calls into the handler
+        }
+    };
+
+    private static final Gson GSON = new GsonBuilder().create();
+
+    private static final Map<ResourceLocation, DrainStrategy> NAMED = new HashMap<>();
+    private static final Map<Block, DrainStrategy> REGISTERED_BLOCKS = new Reference2ObjectOpenHashMap<>();
+    private static final Map<BlockEntityType<?>, DrainStrategy> REGISTERED_TYPES = new Reference2ObjectOpenHashMap<>();
+
+    private static volatile Map<ResourceLocation, Definition> definitions = Map.of();
+    private static volatile Map<Block, DrainStrategy> byBlock = Map.of();
+    private static volatile Map<BlockEntityType<?>, DrainStrategy> byType = Map.of();
+
+    static {
+        register(ResourceLocation.fromNamespaceAndPath(EnderCanteen.MODID, "probing"), PROBING);
+        register(ResourceLocation.fromNamespaceAndPath(EnderCanteen.MODID, "exact"), EXACT);
+        register(ResourceLocation.fromNamespaceAndPath(EnderCanteen.MODID, "cauldron"), CAULDRON);
+    }
+
+    private DrainStrategies() {
+        super(GSON, DIRECTORY);
+    }
+
+    public static void register(IEventBus bus) {
+        bus.addListener(AddReloadListenerEvent.class, e -> e.addListener(new DrainStrategies()));
+        bus.addListener(DrainStrategies::onTagsUpdated);
+    }
+
+    // -------------------------------------------------------------------------
+    // Registration API
+    // -------------------------------------------------------------------------
+
+    /** Makes {@code strategy} available to datapacks under {@code id}. */
+    public static synchronized void register(ResourceLocation id, DrainStrategy strategy) {
+        NAMED.put(id, strategy);
+    }
+
+    public static synchronized void register(Block block, DrainStrategy strategy) {
+        REGISTERED_BLOCKS.put(block, strategy);
+    }
+
+    public static synchronized void register(BlockEntityType<?> type, DrainStrategy strategy) {
+        REGISTERED_TYPES.put(type, strategy);
+    }
+
+    // -------------------------------------------------------------------------
+    // Lookup
+    // -------------------------------------------------------------------------
+
+    /**
+     * The strategy for the block at {@code pos}: by block, then by block entity type, else {@link #PROBING}.
+     *
+     * <p>Resolved on every drink rather than stored on the link when the canteen is linked: a
+     * link is a position, and the block there can be replaced (a tank swapped for a cauldron)
+     * or reassigned by a datapack reload without the canteen noticing. A stored strategy would
+     * then drain the wrong way. Resolving costs one identity-map lookup on the block state –
+     * already in cache, since the drink has just looked up the handler at the same position –
+     * and only for blocks with a block entity, one more on its type.
+     */
+    public static DrainStrategy resolve(Level level, BlockPos pos) {
+        BlockState state = level.getBlockState(pos);
+        DrainStrategy strategy = byBlock.get(state.getBlock());
+        if (strategy != null) return strategy;
+        Map<BlockEntityType<?>, DrainStrategy> types = byType;
+        if (!types.isEmpty() && state.hasBlockEntity()) {
+            BlockEntity be = level.getBlockEntity(pos);
+            if (be != null && (strategy = types.get(be.getType())) != null) return strategy;
+        }
+        return PROBING;
+    }
+
+    // -------------------------------------------------------------------------
+    // Built-in strategies
+    // -------------------------------------------------------------------------
+
+    @Nullable
+    private static FluidStack drainExact(IFluidHandler handler, int mb, FluidAction action) {
+        for (int i = 0; i < handler.getTanks(); i++) {
+            if (!DrinkProfiles.isDrinkable(handler.getFluidInTank(i))) continue;
+            FluidStack result = handler.drain(mb, action);
+            if (DrinkProfiles.isDrinkable(result)) return result;
+        }
+        return null;
+    }
+
+    /**
+     * Drains a drinkable fluid through {@code handler.drain(int, FluidAction)}. A tank that reports
+     * one but cannot be drained even by the probe loop is reported to the {@link HandlerCircuitBreaker}.
+     */
+    @Nullable
+    private static FluidStack drainProbing(IFluidHandler handler, int mb, FluidAction action) {
+        for (int i = 0; i < handler.getTanks(); i++) {
+            if (!DrinkProfiles.isDrinkable(handler.getFluidInTank(i))) continue;
+
+            // Try exactly mb mB first (works for fine-grained handlers like Create tanks).
+            FluidStack result = handler.drain(mb, action);
+            if (DrinkProfiles.isDrinkable(result)) {
+                return result;
+            }
+
+            // Coarse-increment fallback: find the minimum drainable amount via doubling
+            // SIMULATE probes. Probe up to capacity*2 so we don't miss increments equal
+            // to capacity (probe jumps 512 → 1024 while capacity = 1000).
+            int capacity = handler.getTankCapacity(i);
+            int probe = 1;
+            int minIncrement = 0;
+            while (probe <= (long) capacity * 2) {
+                FluidStack probeResult = handler.drain(probe, FluidAction.SIMULATE);
+                if (DrinkProfiles.isDrinkable(probeResult)) {
+                    minIncrement = probeResult.getAmount();
+                    break;
+                }
+                probe = (probe >= Integer.MAX_VALUE / 2) ? Integer.MAX_VALUE : probe * 2;
+            }
+            if (minIncrement <= 0) {
+                // Tank reports a drinkable fluid, yet every probe came back empty or undrinkable.
+                HandlerCircuitBreaker.fault();
+                continue;
+            }
+
+            if (action.execute()) {
+                FluidStack drained = handler.drain(minIncrement, FluidAction.EXECUTE);
+                if (DrinkProfiles.isDrinkable(drained)) {
+                    return drained.copyWithAmount(Math.min(drained.getAmount(), mb));
+                }
+            } else {
+                FluidStack sim = handler.drain(minIncrement, FluidAction.SIMULATE);
+                if (DrinkProfiles.isDrinkable(sim)) {
+                    return sim.copyWithAmount(Math.min(sim.getAmount(), mb));
+                }
+            }
+        }
+        return null;
+    }
+
+    // -------------------------------------------------------------------------
+    // Loading
+    // -------------------------------------------------------------------------
+
+    @Override
+    protected void apply(@NotNull Map<ResourceLocation, JsonElement> files,
+                         @NotNull ResourceManager resourceManager, @NotNull ProfilerFiller profiler) {
+        Map<ResourceLocation, Definition> parsed = new TreeMap<>();
+        files.forEach((id, json) -> Definition.CODEC.parse(JsonOps.INSTANCE, json)
+                .resultOrPartial(error -> EnderCanteen.LOGGER.error(
+                        "[EnderCanteen] Skipping drain strategy definition {}: {}", id, error))
+                .ifPresent(definition -> parsed.put(id, definition)));
+        definitions = parsed;
+    }
+
+    private static void onTagsUpdated(TagsUpdatedEvent event) {
+        // Drains only happen on the server.
+        if (event.getUpdateCause() != TagsUpdatedEvent.UpdateCause.SERVER_DATA_LOAD) return;
+        compile(definitions, event.getRegistryAccess());
+    }
+
+    private static synchronized void compile(Map<ResourceLocation, Definition> definitions, RegistryAccess registries) {
+        Map<Block, DrainStrategy> blocks = new Reference2ObjectOpenHashMap<>();
+        // DrinkProfiles compiles on the same event and registers its listener first.
+        for (Block block : BuiltInRegistries.BLOCK) {
+            CauldronFluidContent content = CauldronFluidContent.getForBlock(block);
+            if (content != null && DrinkProfiles.isDrinkable(content.fluid)) blocks.put(block, CAULDRON);
+        }
+        blocks.putAll(REGISTERED_BLOCKS);
+        Map<BlockEntityType<?>, DrainStrategy> types = new Reference2ObjectOpenHashMap<>(REGISTERED_TYPES);
+
+        Registry<Block> blockRegistry = registries.registryOrThrow(Registries.BLOCK);
+        definitions.forEach((id, definition) -> {
+            DrainStrategy strategy = NAMED.get(definition.strategy());
+            if (strategy == null) {
+                EnderCanteen.LOGGER.warn("[EnderCanteen] Unknown drain strategy {} in {}", definition.strategy(), id);
+                return;
+            }
+            for (String entry : definition.blocks()) {
+                if (entry.startsWith("#")) {
+                    ResourceLocation tagId = ResourceLocation.tryParse(entry.substring(1));
+                    Optional<HolderSet.Named<Block>> tag = tagId == null ? Optional.empty()
+                            : blockRegistry.getTag(TagKey.create(Registries.BLOCK, tagId));
+                    if (tag.isEmpty()) {
+                        EnderCanteen.LOGGER.warn("[EnderCanteen] Unknown block tag {} in drain strategy definition {}", entry, id);
+                        continue;
+                    }
+                    for (Holder<Block> holder : tag.get()) blocks.put(holder.value(), strategy);
+                } else {
+                    ResourceLocation blockId = ResourceLocation.tryParse(entry);
+                    Optional<Block> block = blockId == null ? Optional.empty() : blockRegistry.getOptional(blockId);
+                    if (block.isEmpty()) {
+                        EnderCanteen.LOGGER.warn("[EnderCanteen] Unknown block {} in drain strategy definition {}", entry, id);
+                        continue;
+                    }
+                    blocks.put(block.get(), strategy);
+                }
+            }
+            for (ResourceLocation typeId : definition.blockEntities()) {
+                Optional<BlockEntityType<?>> type = BuiltInRegistries.BLOCK_ENTITY_TYPE.getOptional(typeId);
+                if (type.isEmpty()) {
+                    EnderCanteen.LOGGER.warn("[EnderCanteen] Unknown block entity type {} in drain strategy definition {}", typeId, id);
+                    continue;
+                }
+                types.put(type.get(), strategy);
+            }
+        });
+
+        byBlock = blocks;
+        byType = types;
+        EnderCanteen.LOGGER.debug("[EnderCanteen] Drain strategies for {} blocks and {} block entity types",
+                blocks.size(), types.size());
+    }
+
+    // -------------------------------------------------------------------------
+    // Definition file
+    // -------------------------------------------------------------------------
+
+    private record Definition(ResourceLocation strategy, List<String> blocks, List<ResourceLocation> blockEntities) {
+
+        static final Codec<Definition> CODEC = RecordCodecBuilder.create(instance -> instance.group(
+                ResourceLocation.CODEC.fieldOf("strategy").forGetter(Definition::strategy),
+                ExtraCodecs.compactListCodec(Codec.STRING).optionalFieldOf("blocks", List.of()).forGetter(Definition::blocks),
+                ExtraCodecs.compactListCodec(ResourceLocation.CODEC).optionalFieldOf("block_entities", List.of())
+                        .forGetter(Definition::blockEntities)
+        ).apply(instance, Definition::new));
+    }
+}
@@ -0,0 +1,42 @@
+package com.intelpentium.endercanteen.fluid;
+
+import net.minecraft.core.BlockPos;
+import net.minecraft.world.level.Level;
+import net.neoforged.neoforge.fluids.FluidStack;
+import net.neoforged.neoforge.fluids.capability.IFluidHandler;
+import net.neoforged.neoforge.fluids.capability.IFluidHandler.FluidAction;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * How a canteen drinks from one kind of block. Register implementations for a block or a
+ * block entity type with {@link DrainStrategies}; blocks without one use
+ * {@link DrainStrategies#PROBING}.
+ *
+ * <p>A strategy that knows its tank's semantics can drain exactly what it needs and skip
+ * the generic probing entirely.
+ */
+@FunctionalInterface
+public interface DrainStrategy {
+
+    /**
+     * Drains up to {@code mb} of a drinkable fluid (see {@link DrinkProfiles}).
+     *
+     * @param level   the level containing the linked block
+     * @param pos     the linked block
+     * @param handler the fluid handler found at {@code pos}
+     * @param mb      the amount the drink wants
+     * @param action  SIMULATE for pre-checks, EXECUTE for the drink itself
+     * @return the drained drinkable stack (at most {@code mb}, purity component included),
+     *         or null if nothing drinkable could be drained
+     */
+    @Nullable
+    FluidStack drain(Level level, BlockPos pos, IFluidHandler handler, int mb, FluidAction action);
+
+    /**
+     * Whether {@link HandlerCircuitBreaker} times and guards this strategy. Strategies that
+     * never call into another mod's handler may opt out.
+     */
+    default boolean monitored() {
+        return true;
+    }
+}
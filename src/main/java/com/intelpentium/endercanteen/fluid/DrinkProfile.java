@@ -0,0 +1,103 @@
+package com.intelpentium.endercanteen.fluid;
+
+import com.intelpentium.endercanteen.EnderCanteenConfig;
+import com.mojang.serialization.Codec;
+import com.mojang.serialization.codecs.RecordCodecBuilder;
+import net.minecraft.core.Holder;
+import net.minecraft.network.RegistryFriendlyByteBuf;
+import net.minecraft.network.codec.ByteBufCodecs;
+import net.minecraft.network.codec.StreamCodec;
+import net.minecraft.world.effect.MobEffect;
+import net.minecraft.world.effect.MobEffectInstance;
+import net.minecraft.world.entity.LivingEntity;
+
+import java.util.List;
+
+/**
+ * What drinking a fluid does, per 250 mB. Loaded from datapacks by {@link DrinkProfiles}.
+ *
+ * @param thirst   thirst points per 250 mB, or {@link #FROM_CONFIG} for {@code thirstPer250mb}
+ * @param quenched quench points per 250 mB, or {@link #FROM_CONFIG} for {@code quenchedPer250mb}
+ * @param purity   whether Thirst Was Taken's water purity (and its effects) applies to this fluid
+ * @param effects  effects applied to the player after drinking
+ */
+public record DrinkProfile(int thirst, int quenched, boolean purity, List<Effect> effects) {
+
+    /** Thirst/quench value meaning "use the common config value". */
+    public static final int FROM_CONFIG = -1;
+
+    /** Built-in water profile, used until the first datapack load and on clients without a synced table. */
+    public static final DrinkProfile WATER = new DrinkProfile(FROM_CONFIG, FROM_CONFIG, true, List.of());
+
+    public static final StreamCodec<RegistryFriendlyByteBuf, DrinkProfile> STREAM_CODEC = StreamCodec.composite(
+            ByteBufCodecs.VAR_INT, DrinkProfile::thirst,
+            ByteBufCodecs.VAR_INT, DrinkProfile::quenched,
+            ByteBufCodecs.BOOL, DrinkProfile::purity,
+            Effect.STREAM_CODEC.apply(ByteBufCodecs.list()), DrinkProfile::effects,
+            DrinkProfile::new
+    );
+
+    public int thirstPer250mb() {
+        return thirst == FROM_CONFIG ? EnderCanteenConfig.THIRST_PER_250MB.get() : thirst;
+    }
+
+    public int quenchedPer250mb() {
+        return quenched == FROM_CONFIG ? EnderCanteenConfig.QUENCHED_PER_250MB.get() : quenched;
+    }
+
+    /** Thirst points for {@code mb} of this fluid (at least 1). */
+    public int thirstFor(int mb) {
+        return Math.max(1, (int) Math.round(mb * thirstPer250mb() / 250.0));
+    }
+
+    /** Quench points for {@code mb} of this fluid. */
+    public int quenchedFor(int mb) {
+        return Math.max(0, (int) Math.round(mb * quenchedPer250mb() / 250.0));
+    }
+
+    /** Thirst + quench that {@code mb} more adds to a drink of which {@code drunkBefore} was already drunk. */
+    public int pointsFor(int mb, int drunkBefore) {
+        int before = drunkBefore > 0 ? thirstFor(drunkBefore) + quenchedFor(drunkBefore) : 0;
+        return thirstFor(drunkBefore + mb) + quenchedFor(drunkBefore + mb) - before;
+    }
+
+    /**
+     * The largest amount up to {@code mb} that, drunk after {@code drunkBefore}, restores at
+     * most {@code points} thirst + quench. 0 if not even 1 mB fits.
+     */
+    public int affordableMb(int mb, int drunkBefore, int points) {
+        if (pointsFor(mb, drunkBefore) <= points) return mb;
+        // Points grow monotonically with mB: binary search the boundary
+        int low = 0;
+        int high = mb;
+        while (low < high) {
+            int mid = (low + high + 1) >>> 1;
+            if (pointsFor(mid, drunkBefore) <= points) low = mid;
+            else high = mid - 1;
+        }
+        return low;
+    }
+
+    public void applyEffects(LivingEntity entity) {
+        for (Effect effect : effects) {
+            entity.addEffect(new MobEffectInstance(effect.effect(), effect.duration(), effect.amplifier(), false, true));
+        }
+    }
+
+    /** One effect entry: {@code {"id": "minecraft:regeneration", "duration": 100, "amplifier": 0}}. */
+    public record Effect(Holder<MobEffect> effect, int duration, int amplifier) {
+
+        public static final Codec<Effect> CODEC = RecordCodecBuilder.create(instance -> instance.group(
+                MobEffect.CODEC.fieldOf("id").forGetter(Effect::effect),
+                Codec.intRange(1, Integer.MAX_VALUE).fieldOf("duration").forGetter(Effect::duration),
+                Codec.intRange(0, 255).optionalFieldOf("amplifier", 0).forGetter(Effect::amplifier)
+        ).apply(instance, Effect::new));
+
+        public static final StreamCodec<RegistryFriendlyByteBuf, Effect> STREAM_CODEC = StreamCodec.composite(
+                MobEffect.STREAM_CODEC, Effect::effect,
+                ByteBufCodecs.VAR_INT, Effect::duration,
+                ByteBufCodecs.VAR_INT, Effect::amplifier,
+                Effect::new
+        );
+    }
+}
@@ -0,0 +1,211 @@
+package com.intelpentium.endercanteen.fluid;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonElement;
+import com.intelpentium.endercanteen.EnderCanteen;
+import com.intelpentium.endercanteen.network.DrinkProfilesPacket;
+import com.mojang.serialization.Codec;
+import com.mojang.serialization.JsonOps;
+import com.mojang.serialization.codecs.RecordCodecBuilder;
+import net.minecraft.core.Holder;
+import net.minecraft.core.HolderSet;
+import net.minecraft.core.Registry;
+import net.minecraft.core.registries.Registries;
+import net.minecraft.resources.ResourceLocation;
+import net.minecraft.server.packs.resources.ResourceManager;
+import net.minecraft.server.packs.resources.SimpleJsonResourceReloadListener;
+import net.minecraft.tags.TagKey;
+import net.minecraft.util.ExtraCodecs;
+import net.minecraft.util.profiling.ProfilerFiller;
+import net.minecraft.world.level.material.Fluid;
+import net.minecraft.world.level.material.Fluids;
+import net.neoforged.bus.api.IEventBus;
+import net.neoforged.neoforge.event.AddReloadListenerEvent;
+import net.neoforged.neoforge.event.OnDatapackSyncEvent;
+import net.neoforged.neoforge.event.TagsUpdatedEvent;
+import net.neoforged.neoforge.fluids.FluidStack;
+import net.neoforged.neoforge.network.PacketDistributor;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+
+/**
+ * The table of drinkable fluids.
+ *
+ * <p>Definitions are read from {@code data/<namespace>/endercanteen/drinks/*.json}:
+ * <pre>{@code
+ * {
+ *   "fluids": ["#minecraft:water"],   // fluid ids and/or #tags
+ *   "thirst": 2,                      // per 250 mB, optional (default: config)
+ *   "quenched": 2,                    // per 250 mB, optional (default: config)
+ *   "purity": true,                   // Thirst Was Taken purity applies, optional (default: false)
+ *   "effects": [{"id": "minecraft:regeneration", "duration": 100, "amplifier": 0}]
+ * }
+ * }</pre>
+ * Tags are only bound after the reload listeners have run, so the definitions are compiled
+ * into an {@link IdentityHashMap} keyed by {@link Fluid} on {@link TagsUpdatedEvent}. Direct
+ * fluid ids take precedence over tag entries; among equals, files later in id order win.
+ * Every drinkability check is then a single identity lookup – no tag walk.
+ *
+ * <p>The compiled table is synced to clients for tooltips and previews. It is replaced as a
+ * whole and never mutated, so readers on any thread see a consistent table.
+ */
+public class DrinkProfiles extends SimpleJsonResourceReloadListener {
+
+    public static final String DIRECTORY = "endercanteen/drinks";
+
+    private static final Gson GSON = new GsonBuilder().create();
+
+    private static volatile Map<ResourceLocation, Definition> definitions = Map.of();
+    private static volatile Map<Fluid, DrinkProfile> profiles = defaultProfiles();
+
+    private DrinkProfiles() {
+        super(GSON, DIRECTORY);
+    }
+
+    public static void register(IEventBus bus) {
+        bus.addListener(AddReloadListenerEvent.class, e -> e.addListener(new DrinkProfiles()));
+        bus.addListener(DrinkProfiles::onTagsUpdated);
+        bus.addListener(DrinkProfiles::onDatapackSync);
+    }
+
+    // -------------------------------------------------------------------------
+    // Lookup
+    // -------------------------------------------------------------------------
+
+    /** The profile of {@code fluid}, or null if it is not drinkable. */
+    @Nullable
+    public static DrinkProfile get(Fluid fluid) {
+        return profiles.get(fluid);
+    }
+
+    /** The profile of the fluid in {@code stack}, or null if the stack is empty or not drinkable. */
+    @Nullable
+    public static DrinkProfile get(FluidStack stack) {
+        return stack.isEmpty() ? null : profiles.get(stack.getFluid());
+    }
+
+    public static boolean isDrinkable(Fluid fluid) {
+        return profiles.containsKey(fluid);
+    }
+
+    public static boolean isDrinkable(FluidStack stack) {
+        return !stack.isEmpty() && profiles.containsKey(stack.getFluid());
+    }
+
+    /** The most thirst + quench points {@code mb} of any drinkable fluid restores. */
+    public static int maxPointsFor(int mb) {
+        int max = 0;
+        for (DrinkProfile profile : profiles.values()) {
+            max = Math.max(max, profile.thirstFor(mb) + profile.quenchedFor(mb));
+        }
+        return max;
+    }
+
+    /** The compiled table, for syncing. */
+    public static Map<Fluid, DrinkProfile> all() {
+        return profiles;
+    }
+
+    /** Installs a table received from the server. */
+    public static void accept(Map<Fluid, DrinkProfile> synced) {
+        profiles = synced;
+    }
+
+    private static Map<Fluid, DrinkProfile> defaultProfiles() {
+        Map<Fluid, DrinkProfile> map = new IdentityHashMap<>();
+        map.put(Fluids.WATER, DrinkProfile.WATER);
+        map.put(Fluids.FLOWING_WATER, DrinkProfile.WATER);
+        return map;
+    }
+
+    // -------------------------------------------------------------------------
+    // Loading
+    // -------------------------------------------------------------------------
+
+    @Override
+    protected void apply(@NotNull Map<ResourceLocation, JsonElement> files,
+                         @NotNull ResourceManager resourceManager, @NotNull ProfilerFiller profiler) {
+        Map<ResourceLocation, Definition> parsed = new TreeMap<>();
+        files.forEach((id, json) -> Definition.CODEC.parse(JsonOps.INSTANCE, json)
+                .resultOrPartial(error -> EnderCanteen.LOGGER.error(
+                        "[EnderCanteen] Skipping drink definition {}: {}", id, error))
+                .ifPresent(definition -> parsed.put(id, definition)));
+        definitions = parsed;
+    }
+
+    private static void onTagsUpdated(TagsUpdatedEvent event) {
+        // Clients get the compiled table from the server instead.
+        if (event.getUpdateCause() != TagsUpdatedEvent.UpdateCause.SERVER_DATA_LOAD) return;
+        profiles = compile(definitions, event.getRegistryAccess().registryOrThrow(Registries.FLUID));
+        EnderCanteen.LOGGER.debug("[EnderCanteen] {} drinkable fluids from {} definitions",
+                profiles.size(), definitions.size());
+    }
+
+    private static Map<Fluid, DrinkProfile> compile(Map<ResourceLocation, Definition> definitions,
+                                                    Registry<Fluid> fluids) {
+        Map<Fluid, DrinkProfile> fromTags = new IdentityHashMap<>();
+        Map<Fluid, DrinkProfile> direct = new IdentityHashMap<>();
+        definitions.forEach((id, definition) -> {
+            DrinkProfile profile = definition.toProfile();
+            for (String entry : definition.fluids()) {
+                if (entry.startsWith("#")) {
+                    ResourceLocation tagId = ResourceLocation.tryParse(entry.substring(1));
+                    Optional<HolderSet.Named<Fluid>> tag = tagId == null ? Optional.empty()
+                            : fluids.getTag(TagKey.create(Registries.FLUID, tagId));
+                    if (tag.isEmpty()) {
+                        EnderCanteen.LOGGER.warn("[EnderCanteen] Unknown fluid tag {} in drink definition {}", entry, id);
+                        continue;
+                    }
+                    for (Holder<Fluid> holder : tag.get()) fromTags.put(holder.value(), profile);
+                } else {
+                    ResourceLocation fluidId = ResourceLocation.tryParse(entry);
+                    Optional<Fluid> fluid = fluidId == null ? Optional.empty() : fluids.getOptional(fluidId);
+                    if (fluid.isEmpty() || fluid.get() == Fluids.EMPTY) {
+                        EnderCanteen.LOGGER.warn("[EnderCanteen] Unknown fluid {} in drink definition {}", entry, id);
+                        continue;
+                    }
+                    direct.put(fluid.get(), profile);
+                }
+            }
+        });
+        fromTags.putAll(direct);
+        return fromTags;
+    }
+
+    // -------------------------------------------------------------------------
+    // Sync
+    // -------------------------------------------------------------------------
+
+    /** Fires for each joining player and, after {@code /reload}, for everyone. */
+    private static void onDatapackSync(OnDatapackSyncEvent event) {
+        DrinkProfilesPacket packet = new DrinkProfilesPacket(profiles);
+        event.getRelevantPlayers().forEach(player -> PacketDistributor.sendToPlayer(player, packet));
+    }
+
+    // -------------------------------------------------------------------------
+    // Definition file
+    // -------------------------------------------------------------------------
+
+    private record Definition(List<String> fluids, int thirst, int quenched, boolean purity,
+                              List<DrinkProfile.Effect> effects) {
+
+        static final Codec<Definition> CODEC = RecordCodecBuilder.create(instance -> instance.group(
+                ExtraCodecs.compactListCodec(Codec.STRING).fieldOf("fluids").forGetter(Definition::fluids),
+                Codec.intRange(0, 20).optionalFieldOf("thirst", DrinkProfile.FROM_CONFIG).forGetter(Definition::thirst),
+                Codec.intRange(0, 20).optionalFieldOf("quenched", DrinkProfile.FROM_CONFIG).forGetter(Definition::quenched),
+                Codec.BOOL.optionalFieldOf("purity", false).forGetter(Definition::purity),
+                DrinkProfile.Effect.CODEC.listOf().optionalFieldOf("effects", List.of()).forGetter(Definition::effects)
+        ).apply(instance, Definition::new));
+
+        DrinkProfile toProfile() {
+            return new DrinkProfile(thirst, quenched, purity, List.copyOf(effects));
+        }
+    }
+}
@@ -0,0 +1,202 @@
+package com.intelpentium.endercanteen.fluid;
+
+import com.intelpentium.endercanteen.EnderCanteen;
+import com.intelpentium.endercanteen.EnderCanteenConfig;
+import com.intelpentium.endercanteen.server.CanteenStats;
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import net.minecraft.core.BlockPos;
+import net.minecraft.resources.ResourceKey;
+import net.minecraft.world.level.Level;
+import net.neoforged.bus.api.IEventBus;
+import net.neoforged.neoforge.event.server.ServerStoppedEvent;
+import net.neoforged.neoforge.fluids.capability.IFluidHandler;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Circuit breaker for slow or misbehaving fluid handlers.
+ *
+ * <p>Every drain the canteen performs on a foreign {@link IFluidHandler} is timed
+ * ({@link #begin()} / {@link #end}). An interaction is <em>bad</em> if it exceeds
+ * {@code handlerLatencyBudgetMicros}, throws, or is flagged via {@link #fault()} (e.g. the
+ * handler reports water but drains something else). After {@code handlerStrikeLimit}
+ * consecutive bad interactions the handler's class and/or position is blacklisted for
+ * {@code handlerBackoffBaseSeconds}, doubling on every trip up to {@code handlerBackoffMaxSeconds}.
+ * Once the back-off has expired the next interaction is a trial: if it is bad the breaker
+ * trips again immediately, if it is healthy all state for that key is dropped.
+ *
+ * <p>Wrappers that forward to another handler (the Fluid Tap's) implement {@link Delegating}
+ * and are keyed by the class of the handler behind them, so that one bad tank behind a tap
+ * does not block every tap on the server.
+ *
+ * <p>Healthy handlers never get an entry, so the common path is two empty-map lookups.
+ * Drains run on the tick of the level they happen in, so the maps are guarded by the class
+ * lock and the fault flag is per thread.
+ */
+public class HandlerCircuitBreaker {
+
+    private static final Map<Class<?>, Breaker> BY_CLASS = new HashMap<>();
+    private static final Map<ResourceKey<Level>, Long2ObjectMap<Breaker>> BY_POS = new HashMap<>();
+
+    /** Set by {@link #fault()} during the current interaction on this thread. */
+    private static final ThreadLocal<Boolean> FAULTED = ThreadLocal.withInitial(() -> Boolean.FALSE);
+
+    public static void register(IEventBus bus) {
+        bus.addListener(HandlerCircuitBreaker::onServerStopped);
+    }
+
+    /** A handler that forwards to another one; the breaker keys on the class of {@link #delegate()}. */
+    public interface Delegating {
+        IFluidHandler delegate();
+    }
+
+    /** The class a handler's breaker is keyed on: that of the innermost delegate. */
+    private static Class<?> keyClass(IFluidHandler handler) {
+        while (handler instanceof Delegating delegating) handler = delegating.delegate();
+        return handler.getClass();
+    }
+
+    // -------------------------------------------------------------------------
+    // Queries
+    // -------------------------------------------------------------------------
+
+    /**
+     * Returns how long (in ms) the handler class or position is still blacklisted,
+     * or 0 if interactions are allowed.
+     */
+    public static synchronized long openMillis(IFluidHandler handler, Level level, BlockPos pos) {
+        if (!EnderCanteenConfig.CIRCUIT_BREAKER_ENABLED.get()) return 0;
+        long now = System.nanoTime();
+        long remaining = Math.max(remaining(BY_CLASS.get(keyClass(handler)), now),
+                remaining(positionBreaker(level, pos, false), now));
+        if (remaining > 0) CanteenStats.increment(CanteenStats.Counter.BREAKER_REJECTIONS);
+        return remaining / 1_000_000L;
+    }
+
+    /** Number of class and position breakers that are currently open. */
+    public static synchronized int openCount() {
+        long now = System.nanoTime();
+        int open = 0;
+        for (Breaker b : BY_CLASS.values()) if (remaining(b, now) > 0) open++;
+        for (Long2ObjectMap<Breaker> map : BY_POS.values()) {
+            for (Breaker b : map.values()) if (remaining(b, now) > 0) open++;
+        }
+        return open;
+    }
+
+    private static long remaining(@Nullable Breaker breaker, long now) {
+        return breaker == null ? 0 : Math.max(0, breaker.openUntil - now);
+    }
+
+    // -------------------------------------------------------------------------
+    // Recording
+    // -------------------------------------------------------------------------
+
+    /** Starts timing a handler interaction. Returns the start timestamp for {@link #end}. */
+    public static long begin() {
+        FAULTED.set(Boolean.FALSE);
+        return System.nanoTime();
+    }
+
+    /** Flags the current interaction as misbehaving (wrong fluid, runaway probe, ...). */
+    public static void fault() {
+        FAULTED.set(Boolean.TRUE);
+    }
+
+    /** Ends a handler interaction started with {@link #begin()} and records its outcome. */
+    public static synchronized void end(IFluidHandler handler, Level level, BlockPos pos, long startNanos) {
+        long elapsed = System.nanoTime() - startNanos;
+        long budget = EnderCanteenConfig.HANDLER_LATENCY_BUDGET_MICROS.get() * 1_000L;
+        if (FAULTED.get()) {
+            record(handler, level, pos, "misbehaving drain");
+        } else if (elapsed > budget) {
+            record(handler, level, pos, "slow drain (" + elapsed / 1_000L + " µs)");
+        } else {
+            healthy(handler, level, pos);
+        }
+    }
+
+    /** Records a handler interaction that threw. */
+    public static synchronized void error(IFluidHandler handler, Level level, BlockPos pos, RuntimeException e) {
+        CanteenStats.increment(CanteenStats.Counter.HANDLER_ERRORS);
+        EnderCanteen.LOGGER.debug("[EnderCanteen] Fluid handler {} at {} threw during drain",
+                keyClass(handler).getName(), pos, e);
+        record(handler, level, pos, e.getClass().getSimpleName());
+    }
+
+    private static void healthy(IFluidHandler handler, Level level, BlockPos pos) {
+        if (!BY_CLASS.isEmpty()) BY_CLASS.remove(keyClass(handler));
+        Long2ObjectMap<Breaker> map = BY_POS.get(level.dimension());
+        if (map != null) map.remove(pos.asLong());
+    }
+
+    private static void record(IFluidHandler handler, Level level, BlockPos pos, String reason) {
+        if (!EnderCanteenConfig.CIRCUIT_BREAKER_ENABLED.get()) return;
+        long now = System.nanoTime();
+        Class<?> keyClass = keyClass(handler);
+        Breaker byClass = BY_CLASS.computeIfAbsent(keyClass, k -> new Breaker());
+        if (strike(byClass, now)) {
+            EnderCanteen.LOGGER.warn("[EnderCanteen] Circuit breaker tripped for fluid handler class {} ({}); blocked for {} s",
+                    keyClass.getName(), reason, byClass.backoffSeconds());
+        }
+        Breaker byPos = positionBreaker(level, pos, true);
+        if (strike(byPos, now)) {
+            EnderCanteen.LOGGER.warn("[EnderCanteen] Circuit breaker tripped for fluid handler at {} in {} ({}); blocked for {} s",
+                    pos, level.dimension().location(), reason, byPos.backoffSeconds());
+        }
+    }
+
+    /** Adds a strike; returns true if this trips the breaker. */
+    private static boolean strike(Breaker breaker, long now) {
+        boolean trial = breaker.trips > 0 && now >= breaker.openUntil;
+        breaker.strikes++;
+        if (!trial && breaker.strikes < EnderCanteenConfig.HANDLER_STRIKE_LIMIT.get()) return false;
+
+        breaker.strikes = 0;
+        breaker.trips++;
+        breaker.openUntil = now + breaker.backoffSeconds() * 1_000_000_000L;
+        CanteenStats.increment(CanteenStats.Counter.BREAKER_TRIPS);
+        return true;
+    }
+
+    @Nullable
+    private static Breaker positionBreaker(Level level, BlockPos pos, boolean create) {
+        Long2ObjectMap<Breaker> map = BY_POS.get(level.dimension());
+        if (map == null) {
+            if (!create) return null;
+            map = new Long2ObjectOpenHashMap<>();
+            BY_POS.put(level.dimension(), map);
+        }
+        Breaker breaker = map.get(pos.asLong());
+        if (breaker == null && create) {
+            breaker = new Breaker();
+            map.put(pos.asLong(), breaker);
+        }
+        return breaker;
+    }
+
+    @SuppressWarnings("unused") // event parameter required by NeoForge event bus signature
+    private static synchronized void onServerStopped(ServerStoppedEvent event) {
+        BY_CLASS.clear();
+        BY_POS.clear();
+    }
+
+    private static final class Breaker {
+        /** Consecutive bad interactions since the last trip. */
+        int strikes;
+        /** Consecutive trips without a healthy interaction; drives the exponential back-off. */
+        int trips;
+        /** {@link System#nanoTime()} until which the breaker is open. */
+        long openUntil;
+
+        long backoffSeconds() {
+            long base = EnderCanteenConfig.HANDLER_BACKOFF_BASE_SECONDS.get();
+            long max = EnderCanteenConfig.HANDLER_BACKOFF_MAX_SECONDS.get();
+            int shift = Math.min(Math.max(trips - 1, 0), 30);
+            return Math.min(base << shift, max);
+        }
+    }
+}
@@ -1,9 +1,23 @@
 package com.intelpentium.endercanteen.item;
 
+import com.google.common.collect.MapMaker;
 import com.intelpentium.endercanteen.EnderCanteenConfig;
 import com.intelpentium.endercanteen.registry.ModDataComponents;
+import com.intelpentium.endercanteen.server.EnergyBank;
+import com.mojang.serialization.Codec;
+import com.mojang.serialization.codecs.RecordCodecBuilder;
+import io.netty.buffer.ByteBuf;
+import net.minecraft.network.codec.ByteBufCodecs;
+import net.minecraft.network.codec.StreamCodec;
 import net.minecraft.world.item.ItemStack;
+import net.neoforged.bus.api.IEventBus;
+import net.neoforged.fml.util.thread.EffectiveSide;
 import net.neoforged.neoforge.energy.IEnergyStorage;
+import net.neoforged.neoforge.event.server.ServerStoppedEvent;
+import net.neoforged.neoforge.event.tick.ServerTickEvent;
+
+import java.lang.ref.WeakReference;
+import java.util.Map;
 
 /**
  * IEnergyStorage implementation that reads/writes RF directly from/to the
@@ -11,39 +25,153 @@ import net.neoforged.neoforge.energy.IEnergyStorage;
  *
  * <p>The capacity is driven by {@link EnderCanteenConfig#RF_CAPACITY} so it
  * always reflects the currently loaded config value.
+ *
+ * <p>Instances are cached per stack ({@link #of}), so chargers and energy pipes that query the
+ * capability every tick do not allocate. An instance holds no state of its own and only a weak
+ * reference to its stack – the stack is the cache key, and a strong reference from the value
+ * would keep it alive forever. Every write goes straight to the component, so a stack that is
+ * copied, split or moved right after being charged carries exactly the RF it was given.
+ *
+ * <p>Passive recharge ({@code rfPassiveRecharge}) is not ticked: {@link ModDataComponents#RF_RECHARGE}
+ * records the game time and rate as of the last write, and every server-side read adds what
+ * accrued since. The sum is only written back when the value is written anyway – energy spent
+ * or received – so idle canteens cost nothing per tick. Clients see the recharge once it has
+ * been written.
+ *
+ * <p>While the shared {@link EnergyBank} is enabled, canteens do not accept energy at all.
  */
 public class CanteenEnergyStorage implements IEnergyStorage {
 
-    private final ItemStack stack;
+    /** Identity-keyed, weakly referenced: an entry lives as long as its stack. */
+    private static final Map<ItemStack, CanteenEnergyStorage> CACHE = new MapMaker().weakKeys().makeMap();
+    /** Overworld game time as of the last server tick; -1 while no server is running. */
+    private static volatile long gameTime = -1;
+
+    /** Weak: the stack is this instance's key in {@link #CACHE}. */
+    private final WeakReference<ItemStack> stack;
+
+    private CanteenEnergyStorage(ItemStack stack) {
+        this.stack = new WeakReference<>(stack);
+    }
+
+    /** The energy storage of {@code stack}; the same instance for as long as the stack exists. */
+    public static CanteenEnergyStorage of(ItemStack stack) {
+        return CACHE.computeIfAbsent(stack, CanteenEnergyStorage::new);
+    }
 
-    public CanteenEnergyStorage(ItemStack stack) {
-        this.stack = stack;
+    public static void register(IEventBus bus) {
+        bus.addListener(CanteenEnergyStorage::onServerTick);
+        bus.addListener(CanteenEnergyStorage::onServerStopped);
     }
 
     // ------------------------------------------------------------------
     // Helpers
     // ------------------------------------------------------------------
 
+    /** The stack, or {@link ItemStack#EMPTY} if it was collected while someone held on to this storage. */
+    private ItemStack stack() {
+        ItemStack stack = this.stack.get();
+        return stack != null ? stack : ItemStack.EMPTY;
+    }
+
     private int stored() {
+        ItemStack stack = stack();
         Integer val = stack.get(ModDataComponents.RF_STORED.get());
-        return val != null ? val : 0;
+        int stored = val != null ? val : 0;
+        long recharged = recharged(stack);
+        return recharged > 0 ? (int) Math.max(stored, Math.min(capacity(), stored + recharged)) : stored;
     }
 
     private void setStored(int amount) {
+        ItemStack stack = stack();
+        if (stack.isEmpty()) return;
         stack.set(ModDataComponents.RF_STORED.get(), amount);
+        // The value written includes the recharge so far: restart the clock from now.
+        if (gameTime >= 0 && EffectiveSide.get().isServer()) {
+            int rate = EnderCanteenConfig.RF_PASSIVE_RECHARGE.get();
+            if (rate > 0) {
+                stack.set(ModDataComponents.RF_RECHARGE.get(), new Recharge(gameTime, rate));
+            } else if (stack.has(ModDataComponents.RF_RECHARGE.get())) {
+                stack.remove(ModDataComponents.RF_RECHARGE.get());
+            }
+        }
+    }
+
+    /** RF accrued since the last write, before capping. Server side only. */
+    private static long recharged(ItemStack stack) {
+        Recharge recharge = stack.get(ModDataComponents.RF_RECHARGE.get());
+        if (recharge == null || gameTime < 0 || EnergyBank.isEnabled() || !EffectiveSide.get().isServer()) return 0;
+        long elapsed = gameTime - recharge.since();
+        return elapsed > 0 ? elapsed * recharge.rate() : 0;
+    }
+
+    // ------------------------------------------------------------------
+    // Passive recharge
+    // ------------------------------------------------------------------
+
+    /**
+     * Passive recharge anchor: RF per tick accrued since game time {@code since}. The rate is
+     * stored with the anchor, so a config change applies from each canteen's next write.
+     */
+    public record Recharge(long since, int rate) {
+
+        public static final Codec<Recharge> CODEC = RecordCodecBuilder.create(instance -> instance.group(
+                Codec.LONG.fieldOf("since").forGetter(Recharge::since),
+                Codec.INT.fieldOf("rate").forGetter(Recharge::rate)
+        ).apply(instance, Recharge::new));
+
+        public static final StreamCodec<ByteBuf, Recharge> STREAM_CODEC = StreamCodec.composite(
+                ByteBufCodecs.VAR_LONG, Recharge::since,
+                ByteBufCodecs.VAR_INT, Recharge::rate,
+                Recharge::new
+        );
+    }
+
+    /**
+     * Starts passive recharge for a canteen that has none yet, e.g. one that was never charged
+     * or spent. Called when a canteen is linked; a no-op if recharge is disabled.
+     */
+    public void startRecharge() {
+        ItemStack stack = stack();
+        if (stack.isEmpty() || stack.has(ModDataComponents.RF_RECHARGE.get())) return;
+        if (gameTime < 0 || EnderCanteenConfig.RF_PASSIVE_RECHARGE.get() <= 0) return;
+        stack.set(ModDataComponents.RF_RECHARGE.get(), new Recharge(gameTime, EnderCanteenConfig.RF_PASSIVE_RECHARGE.get()));
+    }
+
+    private static void onServerTick(ServerTickEvent.Post event) {
+        gameTime = event.getServer().overworld().getGameTime();
+    }
+
+    @SuppressWarnings("unused") // event parameter required by NeoForge event bus signature
+    private static void onServerStopped(ServerStoppedEvent event) {
+        gameTime = -1;
     }
 
     private int capacity() {
         return EnderCanteenConfig.RF_CAPACITY.get();
     }
 
+    // ------------------------------------------------------------------
+    // Item bar
+    // ------------------------------------------------------------------
+
+    /** Resolution of the item bar (vanilla draws 13 pixels at full width). */
+    public static final int BAR_STEPS = 13;
+
+    /** The 0-13 item bar step for a stored RF value. */
+    public static int toBarStep(int stored) {
+        int cap = EnderCanteenConfig.RF_CAPACITY.get();
+        if (cap <= 0 || stored <= 0) return 0;
+        return Math.min(BAR_STEPS, Math.round((float) BAR_STEPS * stored / cap));
+    }
+
     // ------------------------------------------------------------------
     // IEnergyStorage
     // ------------------------------------------------------------------
 
     @Override
     public int receiveEnergy(int maxReceive, boolean simulate) {
-        if (maxReceive <= 0) return 0;
+        if (maxReceive <= 0 || EnergyBank.isEnabled()) return 0;
         int current = stored();
         int cap = capacity();
         int accepted = Math.min(maxReceive, cap - current);
@@ -81,7 +209,7 @@ public class CanteenEnergyStorage implements IEnergyStorage {
 
     @Override
     public boolean canReceive() {
-        return true;
+        return !EnergyBank.isEnabled();
     }
 }
 
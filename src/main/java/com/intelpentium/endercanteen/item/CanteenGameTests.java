@@ -0,0 +1,189 @@
+package com.intelpentium.endercanteen.item;
+
+import com.intelpentium.endercanteen.EnderCanteen;
+import com.intelpentium.endercanteen.fluid.DrainStrategies;
+import com.intelpentium.endercanteen.registry.ModDataComponents;
+import com.intelpentium.endercanteen.registry.ModItems;
+import com.intelpentium.endercanteen.server.EnergyBank;
+import com.mojang.serialization.Codec;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.GlobalPos;
+import net.minecraft.gametest.framework.GameTest;
+import net.minecraft.gametest.framework.GameTestHelper;
+import net.minecraft.nbt.NbtOps;
+import net.minecraft.nbt.Tag;
+import net.minecraft.server.level.ServerPlayer;
+import net.minecraft.world.item.ItemStack;
+import net.minecraft.world.level.material.Fluids;
+import net.neoforged.neoforge.fluids.FluidStack;
+import net.neoforged.neoforge.fluids.capability.IFluidHandler;
+import net.neoforged.neoforge.gametest.GameTestHolder;
+import net.neoforged.neoforge.gametest.PrefixGameTestTemplate;
+import org.jetbrains.annotations.NotNull;
+
+import java.lang.management.ManagementFactory;
+
+/**
+ * Game tests for the canteen, run by the {@code gameTestServer} run config (and so by
+ * {@code gradle build}). They only load where game tests are enabled, never on a normal server.
+ *
+ * <p>All tests use the empty 3×3×3 {@code endercanteen:empty} structure.
+ */
+@GameTestHolder(EnderCanteen.MODID)
+@PrefixGameTestTemplate(false)
+public class CanteenGameTests {
+
+    private static final String EMPTY = "empty";
+
+    // -------------------------------------------------------------------------
+    // Link interning
+    // -------------------------------------------------------------------------
+
+    /** Canteens decoded at once, like the contents of a storage network being loaded. */
+    private static final int LINKED_CANTEENS = 10_000;
+
+    /**
+     * Decodes {@value #LINKED_CANTEENS} canteens linked to the same tank, each with its own RF
+     * value, once with the plain {@link GlobalPos#CODEC} and once with the interning
+     * {@link ModDataComponents#LINK_CODEC}, and checks that interning retains less heap.
+     * Forces several full GCs.
+     */
+    @GameTest(template = EMPTY)
+    public static void internedLinksRetainLessHeap(GameTestHelper helper) {
+        GlobalPos link = GlobalPos.of(helper.getLevel().dimension(), helper.absolutePos(BlockPos.ZERO));
+        Tag encoded = GlobalPos.CODEC.encodeStart(NbtOps.INSTANCE, link).getOrThrow();
+        long plain = bytesPerCanteen(GlobalPos.CODEC, encoded);
+        long interned = bytesPerCanteen(ModDataComponents.LINK_CODEC, encoded);
+        helper.assertTrue(interned < plain,
+                "Interned links retain " + interned + " bytes/canteen, plain links " + plain);
+        helper.succeed();
+    }
+
+    private static long bytesPerCanteen(Codec<GlobalPos> codec, Tag encoded) {
+        ItemStack[] stacks = new ItemStack[LINKED_CANTEENS];
+        long before = usedHeapAfterGc();
+        for (int i = 0; i < LINKED_CANTEENS; i++) {
+            ItemStack stack = new ItemStack(ModItems.CANTEEN.get());
+            stack.set(ModDataComponents.LINKED_POS.get(), codec.parse(NbtOps.INSTANCE, encoded).getOrThrow());
+            stack.set(ModDataComponents.RF_STORED.get(), i);
+            stacks[i] = stack;
+        }
+        long after = usedHeapAfterGc();
+        long perCanteen = Math.max(0, after - before) / LINKED_CANTEENS;
+        // Keep the stacks reachable until after the measurement.
+        if (stacks[LINKED_CANTEENS - 1].isEmpty()) throw new IllegalStateException();
+        return perCanteen;
+    }
+
+    private static long usedHeapAfterGc() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    // -------------------------------------------------------------------------
+    // Drink allocations
+    // -------------------------------------------------------------------------
+
+    /**
+     * Bytes a drink may allocate: the two FluidStacks the tank returns – one for the planning
+     * SIMULATE drain, one for the drain itself – and nothing else.
+     */
+    static final long BUDGET_BYTES_PER_DRINK = 384;
+    /** Drinks run first and not measured, so that lazily created state is in place. */
+    private static final int WARMUP_DRINKS = 2;
+    private static final int MEASURED_DRINKS = 10;
+
+    /**
+     * Runs drinks through the plan, drain and RF charge of a same-dimension drink, from a
+     * {@link FixtureTank} into a charged canteen, and checks the bytes the server thread
+     * allocates per drink against {@link #BUDGET_BYTES_PER_DRINK}.
+     */
+    @GameTest(template = EMPTY)
+    public static void drinkStaysWithinAllocationBudget(GameTestHelper helper) {
+        if (!(ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean bean)
+                || !bean.isThreadAllocatedMemorySupported()) {
+            EnderCanteen.LOGGER.warn("[EnderCanteen] This JVM cannot count allocations per thread; skipping the drink allocation test.");
+            helper.succeed();
+            return;
+        }
+        if (!bean.isThreadAllocatedMemoryEnabled()) bean.setThreadAllocatedMemoryEnabled(true);
+
+        ServerPlayer player = helper.makeMockServerPlayerInLevel();
+        ItemStack stack = new ItemStack(ModItems.CANTEEN.get());
+        if (EnergyBank.isEnabled()) {
+            EnergyBank.get(helper.getLevel().getServer()).account(player).deposit(Integer.MAX_VALUE, false);
+        } else {
+            CanteenEnergyStorage energy = CanteenEnergyStorage.of(stack);
+            energy.receiveEnergy(energy.getMaxEnergyStored(), false);
+        }
+        FixtureTank tank = new FixtureTank();
+        BlockPos pos = helper.absolutePos(BlockPos.ZERO);
+
+        for (int i = 0; i < WARMUP_DRINKS; i++) {
+            helper.assertTrue(drink(helper, player, stack, tank, pos), "Warm-up drink " + i + " failed");
+        }
+        long before = bean.getCurrentThreadAllocatedBytes();
+        for (int i = 0; i < MEASURED_DRINKS; i++) {
+            // Not assertTrue: its message would be built, and counted, on every drink
+            if (!drink(helper, player, stack, tank, pos)) helper.fail("Drink " + i + " failed");
+        }
+        long bytesPerDrink = (bean.getCurrentThreadAllocatedBytes() - before) / MEASURED_DRINKS;
+        helper.assertTrue(bytesPerDrink <= BUDGET_BYTES_PER_DRINK,
+                "A drink allocated " + bytesPerDrink + " bytes, budget " + BUDGET_BYTES_PER_DRINK);
+        helper.succeed();
+    }
+
+    private static boolean drink(GameTestHelper helper, ServerPlayer player, ItemStack stack, IFluidHandler tank,
+                                 BlockPos pos) {
+        return CanteenItem.drainAndCharge(stack, player, tank, DrainStrategies.PROBING, helper.getLevel(), pos,
+                CanteenItem.drinkMb(), 0, true) != null;
+    }
+
+    /**
+     * A single tank of water that never runs dry. Each drain returns a new stack, as real
+     * tanks do; nothing else allocates.
+     */
+    private static final class FixtureTank implements IFluidHandler {
+
+        private static final int CAPACITY = 1_000;
+        private final FluidStack contents = new FluidStack(Fluids.WATER, CAPACITY);
+
+        @Override
+        public int getTanks() {
+            return 1;
+        }
+
+        @Override
+        public @NotNull FluidStack getFluidInTank(int tank) {
+            return contents;
+        }
+
+        @Override
+        public int getTankCapacity(int tank) {
+            return CAPACITY;
+        }
+
+        @Override
+        public boolean isFluidValid(int tank, @NotNull FluidStack stack) {
+            return false;
+        }
+
+        @Override
+        public int fill(@NotNull FluidStack resource, @NotNull FluidAction action) {
+            return 0;
+        }
+
+        @Override
+        public @NotNull FluidStack drain(@NotNull FluidStack resource, @NotNull FluidAction action) {
+            return FluidStack.isSameFluidSameComponents(resource, contents) ? drain(resource.getAmount(), action) : FluidStack.EMPTY;
+        }
+
+        @Override
+        public @NotNull FluidStack drain(int maxDrain, @NotNull FluidAction action) {
+            return maxDrain > 0 ? contents.copyWithAmount(Math.min(maxDrain, CAPACITY)) : FluidStack.EMPTY;
+        }
+    }
+}
@@ -3,6 +3,18 @@ package com.intelpentium.endercanteen.item;
 import com.intelpentium.endercanteen.EnderCanteenConfig;
 import com.intelpentium.endercanteen.blockentity.FluidTapBlockEntity;
 import com.intelpentium.endercanteen.compat.ThirstCompat;
+import com.intelpentium.endercanteen.fluid.CauldronClusters;
+import com.intelpentium.endercanteen.fluid.DeadLinks;
+import com.intelpentium.endercanteen.fluid.DrainResult;
+import com.intelpentium.endercanteen.fluid.DrainStrategies;
+import com.intelpentium.endercanteen.fluid.DrainStrategy;
+import com.intelpentium.endercanteen.fluid.DrinkProfile;
+import com.intelpentium.endercanteen.fluid.DrinkProfiles;
+import com.intelpentium.endercanteen.fluid.HandlerCircuitBreaker;
+import com.intelpentium.endercanteen.server.CanteenStats;
+import com.intelpentium.endercanteen.server.EnergyBank;
+import com.intelpentium.endercanteen.server.LinkTable;
+import com.intelpentium.endercanteen.server.LoadShedder;
 import com.intelpentium.endercanteen.network.StopDrinkingPacket;
 import com.intelpentium.endercanteen.registry.ModDataComponents;
 import dev.ghen.thirst.api.ThirstHelper;
@@ -10,6 +22,7 @@ import dev.ghen.thirst.content.registry.ThirstComponent;
 import dev.ghen.thirst.foundation.common.event.RegisterThirstValueEvent;
 import dev.ghen.thirst.foundation.common.item.DrinkableItem;
 import net.minecraft.server.MinecraftServer;
+import net.minecraft.server.level.ServerLevel;
 import net.minecraft.server.level.ServerPlayer;
 import net.neoforged.neoforge.network.PacketDistributor;
 import net.minecraft.core.BlockPos;
@@ -17,7 +30,6 @@ import net.minecraft.core.Direction;
 import net.minecraft.core.GlobalPos;
 import net.minecraft.network.chat.Component;
 import net.minecraft.sounds.SoundEvents;
-import net.minecraft.tags.FluidTags;
 import net.minecraft.world.InteractionHand;
 import net.minecraft.world.InteractionResult;
 import net.minecraft.world.InteractionResultHolder;
@@ -30,17 +42,24 @@ import net.minecraft.world.item.context.UseOnContext;
 import net.minecraft.world.level.Level;
 import net.minecraft.world.level.block.entity.BlockEntity;
 import net.neoforged.neoforge.capabilities.Capabilities;
-import net.neoforged.neoforge.fluids.CauldronFluidContent;
 import net.neoforged.neoforge.fluids.FluidStack;
 import net.neoforged.neoforge.fluids.capability.IFluidHandler;
 import net.neoforged.neoforge.fluids.capability.IFluidHandler.FluidAction;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
 
 public class CanteenItem extends DrinkableItem {
 
+    /** Ticks a drink takes. */
+    private static final int USE_DURATION = 32;
+    /** Returned by the drink path when the drink was queued for another dimension's tick. */
+    private static final int QUEUED = -1;
+
     public CanteenItem(Properties properties) {
         super(properties);
     }
@@ -53,14 +72,14 @@ public class CanteenItem extends DrinkableItem {
         return EnderCanteenConfig.DRINK_AMOUNT_MB.get();
     }
 
+    /** Thirst points for {@code drainedMb} of water. */
     public static int calcThirst(int drainedMb) {
-        return Math.max(1, (int) Math.round(
-                drainedMb * EnderCanteenConfig.THIRST_PER_250MB.get() / 250.0));
+        return DrinkProfile.WATER.thirstFor(drainedMb);
     }
 
+    /** Quench points for {@code drainedMb} of water. */
     public static int calcQuenched(int drainedMb) {
-        return Math.max(0, (int) Math.round(
-                drainedMb * EnderCanteenConfig.QUENCHED_PER_250MB.get() / 250.0));
+        return DrinkProfile.WATER.quenchedFor(drainedMb);
     }
 
     // -------------------------------------------------------------------------
@@ -108,11 +127,24 @@ public class CanteenItem extends DrinkableItem {
             return InteractionResult.FAIL;
         }
 
-        stack.set(ModDataComponents.LINKED_POS.get(), GlobalPos.of(level.dimension(), pos));
+        GlobalPos target = ModDataComponents.internLink(GlobalPos.of(level.dimension(), pos.immutable()));
+        MinecraftServer server = level.getServer();
+        if (server != null && LinkTable.isEnabled()) {
+            stack.set(ModDataComponents.LINK_ID.get(), LinkTable.get(server).idFor(target));
+            stack.remove(ModDataComponents.LINKED_POS.get());
+        } else {
+            stack.set(ModDataComponents.LINKED_POS.get(), target);
+            stack.remove(ModDataComponents.LINK_ID.get());
+        }
 
         if (!level.isClientSide) {
-            player.displayClientMessage(
-                    Component.translatable("item.endercanteen.canteen.linked",
+            CanteenEnergyStorage.of(stack).startRecharge();
+            int clusterSize = CauldronClusters.isClusterBlock(level.getBlockState(pos))
+                    ? CauldronClusters.clusterSize(level, pos) : 1;
+            player.displayClientMessage(clusterSize > 1
+                    ? Component.translatable("item.endercanteen.canteen.linked_cluster",
+                            clusterSize, pos.getX(), pos.getY(), pos.getZ())
+                    : Component.translatable("item.endercanteen.canteen.linked",
                             pos.getX(), pos.getY(), pos.getZ()), true);
             player.playSound(SoundEvents.NOTE_BLOCK_PLING.value(), 1.0f, 1.5f);
         }
@@ -129,8 +161,7 @@ public class CanteenItem extends DrinkableItem {
 
         if (player.isShiftKeyDown()) return InteractionResultHolder.pass(stack);
 
-        GlobalPos linkedPos = stack.get(ModDataComponents.LINKED_POS.get());
-        if (linkedPos == null) {
+        if (!isLinked(stack)) {
             if (!level.isClientSide) {
                 player.displayClientMessage(
                         Component.translatable("item.endercanteen.canteen.not_linked"), true);
@@ -147,21 +178,46 @@ public class CanteenItem extends DrinkableItem {
 
         // Server-side authoritative pre-checks --------------------------------
         if (player instanceof ServerPlayer sp) {
+            GlobalPos linkedPos = getLinkedPos(stack, level);
+            if (linkedPos == null) {
+                // Link id no longer in the link table
+                player.displayClientMessage(
+                        Component.translatable("item.endercanteen.canteen.not_linked"), true);
+                sendStopPacket(sp);
+                return InteractionResultHolder.fail(stack);
+            }
+            if (isDeadLink(level, linkedPos)) {
+                player.displayClientMessage(
+                        Component.translatable("item.endercanteen.canteen.no_water"), true);
+                sendStopPacket(sp);
+                return InteractionResultHolder.fail(stack);
+            }
             Level targetLevel = getTargetLevel(level, linkedPos);
-            if (targetLevel == null || !targetLevel.isLoaded(linkedPos.pos())) {
+            // Another dimension's blocks are only touched on its own tick (see CrossDimensionDrains),
+            // so cross-dimension drinks skip the tank pre-checks and report problems when they complete.
+            boolean remote = targetLevel != null && targetLevel != level;
+            if (targetLevel == null || (!remote && !targetLevel.isLoaded(linkedPos.pos()))) {
                 player.displayClientMessage(
                         Component.translatable("item.endercanteen.canteen.out_of_range"), true);
                 sendStopPacket(sp);
                 return InteractionResultHolder.fail(stack);
             }
-            IFluidHandler handler = getHandlerAt(targetLevel, linkedPos.pos());
-            if (handler == null || findWaterStack(handler, drinkMb(), FluidAction.SIMULATE, targetLevel, linkedPos.pos()) == null) {
+            IFluidHandler handler = remote ? null : getLinkedHandler(targetLevel, linkedPos.pos());
+            long openMillis = handler != null ? HandlerCircuitBreaker.openMillis(handler, targetLevel, linkedPos.pos()) : 0;
+            if (openMillis > 0) {
+                player.displayClientMessage(trippedMessage(openMillis), true);
+                sendStopPacket(sp);
+                return InteractionResultHolder.fail(stack);
+            }
+            // Under load the drain pre-check is skipped; finishUsingItem reports an empty tank instead.
+            if (!remote && (handler == null || (!LoadShedder.atLeast(LoadShedder.Stage.DEGRADED)
+                    && findWaterStack(handler, drinkMb(), FluidAction.SIMULATE, targetLevel, linkedPos.pos()) == null))) {
                 player.displayClientMessage(
                         Component.translatable("item.endercanteen.canteen.no_water"), true);
                 sendStopPacket(sp);
                 return InteractionResultHolder.fail(stack);
             }
-            if (!hasEnoughRf(stack)) {
+            if (!hasEnoughRf(stack, sp)) {
                 player.displayClientMessage(
                         Component.translatable("item.endercanteen.canteen.no_rf"), true);
                 sendStopPacket(sp);
@@ -176,93 +232,444 @@ public class CanteenItem extends DrinkableItem {
     @Override
     public @NotNull ItemStack finishUsingItem(@NotNull ItemStack stack, @NotNull Level level, @NotNull LivingEntity entity) {
         if (!(entity instanceof ServerPlayer player)) return stack;
+        Sip sip = SIPS.remove(player);
+        if (sip != null && sip.streaming) {
+            // Final slice: whatever the earlier sips left of the drink
+            if (drink(stack, level, player, false, drinkMb() - sip.drunkMb, sip.drunkMb) > 0) {
+                CanteenStats.increment(CanteenStats.Counter.DRINKS);
+            }
+        } else {
+            drink(stack, level, player, false);
+        }
+        return stack;
+    }
 
-        GlobalPos linkedPos = stack.get(ModDataComponents.LINKED_POS.get());
-        if (linkedPos == null) return stack;
+    /**
+     * Performs one server-side drink from the canteen's linked tank: drain, RF cost,
+     * purity and thirst. Used by {@link #finishUsingItem} and by the auto-drink scheduler.
+     *
+     * @param silent if true, a failed drink neither messages the player nor cancels their
+     *               current use animation (auto-drink runs while the player does other things)
+     * @return true if the player drank
+     */
+    public static boolean drink(ItemStack stack, Level level, ServerPlayer player, boolean silent) {
+        int drunk = drink(stack, level, player, silent, drinkMb(), 0);
+        if (drunk == QUEUED) return true; // counted when it completes
+        if (drunk <= 0) return false;
+        CanteenStats.increment(CanteenStats.Counter.DRINKS);
+        if (silent) CanteenStats.increment(CanteenStats.Counter.AUTO_DRINKS);
+        return true;
+    }
+
+    /**
+     * Drinks {@code mb} from the linked tank. {@code drunkBefore} is what earlier sips of the
+     * same drink already took; thirst and quench are credited as the difference between the
+     * totals before and after, so a drink in slices restores exactly what one drink would.
+     *
+     * @return mB drunk, 0 if the drink failed, or {@link #QUEUED} if the tank is in another
+     *         dimension and the drink was handed to {@link CrossDimensionDrains}
+     */
+    private static int drink(ItemStack stack, Level level, ServerPlayer player, boolean silent,
+                             int mb, int drunkBefore) {
+        GlobalPos linkedPos = getLinkedPos(stack, level);
+        if (linkedPos == null || mb <= 0) return 0;
+        if (isDeadLink(level, linkedPos)) {
+            rejectDrink(player, null, silent);
+            return 0;
+        }
 
         Level targetLevel = getTargetLevel(level, linkedPos);
+        if (targetLevel != level && targetLevel instanceof ServerLevel remote) {
+            // Reserve what the drink can cost at most, here on the player's thread; creditRemote
+            // refunds the part it did not cost.
+            int maxPoints = Math.min(affordablePoints(stack, player), Math.max(1, DrinkProfiles.maxPointsFor(mb)));
+            if (maxPoints <= 0) {
+                rejectDrink(player, Component.translatable("item.endercanteen.canteen.no_rf"), silent);
+                return 0;
+            }
+            int reservedRf = reserveRf(stack, player, maxPoints);
+            CrossDimensionDrains.submit(new CrossDimensionDrains.Request(
+                    player, stack, remote, linkedPos.pos(), mb, maxPoints, reservedRf, silent));
+            return QUEUED;
+        }
         if (targetLevel == null || !targetLevel.isLoaded(linkedPos.pos())) {
-            player.displayClientMessage(
-                    Component.translatable("item.endercanteen.canteen.out_of_range"), true);
-            sendStopPacket(player);
-            return stack;
+            rejectDrink(player, Component.translatable("item.endercanteen.canteen.out_of_range"), silent);
+            return 0;
         }
 
-        IFluidHandler handler = getHandlerAt(targetLevel, linkedPos.pos());
+        IFluidHandler handler = getLinkedHandler(targetLevel, linkedPos.pos());
         if (handler == null) {
-            sendStopPacket(player);
-            return stack;
+            rejectDrink(player, null, silent);
+            return 0;
         }
 
-        FluidStack drained = findWaterStack(handler, drinkMb(), FluidAction.EXECUTE, targetLevel, linkedPos.pos());
-        if (drained == null || drained.isEmpty()) {
-            player.displayClientMessage(
-                    Component.translatable("item.endercanteen.canteen.no_water"), true);
-            sendStopPacket(player);
-            return stack;
+        long openMillis = HandlerCircuitBreaker.openMillis(handler, targetLevel, linkedPos.pos());
+        if (openMillis > 0) {
+            rejectDrink(player, trippedMessage(openMillis), silent);
+            return 0;
         }
 
-        int effectiveMb = Math.min(drained.getAmount(), drinkMb());
-        int thirst   = calcThirst(effectiveMb);
-        int quenched = calcQuenched(effectiveMb);
+        DrainResult drink = drainAndCharge(stack, player, handler, DrainStrategies.resolve(targetLevel, linkedPos.pos()),
+                targetLevel, linkedPos.pos(), mb, drunkBefore, silent);
+        if (drink == null) return 0;
 
-        int[] adjusted = applyRfCost(stack, handler, drained, thirst, quenched);
-        if (adjusted == null) {
-            // Not enough RF – fluid already refunded inside applyRfCost
-            player.displayClientMessage(
-                    Component.translatable("item.endercanteen.canteen.no_rf"), true);
-            sendStopPacket(player);
-            return stack;
+        ThirstCompat.queueThirst(player, drink);
+        if (!LoadShedder.atLeast(LoadShedder.Stage.DEGRADED)) {
+            player.playSound(SoundEvents.GENERIC_DRINK, 1.0f, 1.0f + (float)(Math.random() * 0.4 - 0.2));
         }
-        thirst   = adjusted[0];
-        quenched = adjusted[1];
+        return drink.amount();
+    }
 
-        ThirstCompat.addThirst(player, thirst, quenched, drained, targetLevel, linkedPos.pos());
-        player.playSound(SoundEvents.GENERIC_DRINK, 1.0f, 1.0f + (float)(Math.random() * 0.4 - 0.2));
-        return stack;
+    /**
+     * Same-dimension half of {@link #drink}: plans the drain against the RF available, drains
+     * and charges. Credits nothing; returns null, after rejecting the drink, if it failed.
+     * Package-private for {@link CanteenGameTests}.
+     */
+    @Nullable
+    static DrainResult drainAndCharge(ItemStack stack, ServerPlayer player, IFluidHandler handler,
+                                              DrainStrategy strategy, Level level, BlockPos pos, int mb,
+                                              int drunkBefore, boolean silent) {
+        // Settle RF before touching the tank: drain only what the canteen can pay for.
+        int affordable = affordablePoints(stack, player);
+        int plannedMb = affordable > 0
+                ? plannedMb(strategy, handler, level, pos, mb, drunkBefore, affordable) : 0;
+        if (plannedMb < 0) {
+            rejectDrink(player, Component.translatable("item.endercanteen.canteen.no_water"), silent);
+            return null;
+        }
+        if (plannedMb == 0) {
+            rejectDrink(player, Component.translatable("item.endercanteen.canteen.no_rf"), silent);
+            return null;
+        }
+
+        DrainResult drink = drainDrink(strategy, handler, plannedMb, level, pos);
+        if (drink == null) {
+            rejectDrink(player, Component.translatable("item.endercanteen.canteen.no_water"), silent);
+            return null;
+        }
+
+        DrinkProfile profile = drink.profile();
+        int drunkAfter = drunkBefore + drink.amount();
+        setAffordablePoints(drink,
+                profile.thirstFor(drunkAfter)   - (drunkBefore > 0 ? profile.thirstFor(drunkBefore)   : 0),
+                profile.quenchedFor(drunkAfter) - (drunkBefore > 0 ? profile.quenchedFor(drunkBefore) : 0),
+                affordable);
+
+        chargeRf(stack, player, drink);
+        return drink;
+    }
+
+    /** Target-level half of a cross-dimension drink: drains and resolves purity, on the tank's level tick. */
+    static CrossDimensionDrains.Result drainRemote(CrossDimensionDrains.Request request) {
+        ServerLevel level = request.target();
+        BlockPos pos = request.pos();
+        if (!level.isLoaded(pos)) {
+            return CrossDimensionDrains.Result.failed(request, Component.translatable("item.endercanteen.canteen.out_of_range"));
+        }
+        IFluidHandler handler = getLinkedHandler(level, pos);
+        if (handler == null) return CrossDimensionDrains.Result.failed(request, null);
+
+        long openMillis = HandlerCircuitBreaker.openMillis(handler, level, pos);
+        if (openMillis > 0) return CrossDimensionDrains.Result.failed(request, trippedMessage(openMillis));
+
+        DrainStrategy strategy = DrainStrategies.resolve(level, pos);
+        int mb = plannedMb(strategy, handler, level, pos, request.mb(), 0, request.maxPoints());
+        if (mb < 0) return CrossDimensionDrains.Result.failed(request, Component.translatable("item.endercanteen.canteen.no_water"));
+        if (mb == 0) return CrossDimensionDrains.Result.failed(request, Component.translatable("item.endercanteen.canteen.no_rf"));
+        DrainResult drink = drainDrink(strategy, handler, mb, level, pos);
+        if (drink == null) {
+            return CrossDimensionDrains.Result.failed(request, Component.translatable("item.endercanteen.canteen.no_water"));
+        }
+
+        // Only what the RF paid for when the drink was queued
+        setAffordablePoints(drink, drink.profile().thirstFor(drink.amount()),
+                drink.profile().quenchedFor(drink.amount()), request.maxPoints());
+        // Handed to the player's level: detach from this thread's reusable result
+        return new CrossDimensionDrains.Result(request, drink.copy(), null);
+    }
+
+    /**
+     * Player-level half of a cross-dimension drink: credits thirst and refunds the reserved RF
+     * the drink did not cost, on the player's level tick.
+     */
+    static void creditRemote(CrossDimensionDrains.Result result) {
+        CrossDimensionDrains.Request request = result.request();
+        ServerPlayer player = request.player();
+        DrainResult drink = result.drink();
+        if (drink == null) {
+            refundRemote(request);
+            rejectDrink(player, result.failure(), request.silent());
+            return;
+        }
+
+        // drainRemote fitted the points to maxPoints, which the reservation paid for in full.
+        if (request.reservedRf() > 0) {
+            int cost = (drink.thirst() + drink.quenched()) * EnderCanteenConfig.RF_COST_PER_THIRST_POINT.get();
+            refundRf(request.stack(), player, request.reservedRf() - cost);
+        }
+
+        // Purity was captured at drain time; the source block belongs to another level's thread.
+        ThirstCompat.queueThirst(player, drink);
+        if (!LoadShedder.atLeast(LoadShedder.Stage.DEGRADED)) {
+            player.playSound(SoundEvents.GENERIC_DRINK, 1.0f, 1.0f + (float)(Math.random() * 0.4 - 0.2));
+        }
+        CanteenStats.increment(CanteenStats.Counter.DRINKS);
+        if (request.silent()) CanteenStats.increment(CanteenStats.Counter.AUTO_DRINKS);
+    }
+
+    /** Gives back the whole RF reservation of a cross-dimension drink that was not drunk. */
+    static void refundRemote(CrossDimensionDrains.Request request) {
+        refundRf(request.stack(), request.player(), request.reservedRf());
+    }
+
+    // -------------------------------------------------------------------------
+    // Sip mode: drain the drink in slices while the canteen is in use
+    // -------------------------------------------------------------------------
+
+    /**
+     * Sips in progress. Weak keys so a player who disconnects mid-drink is not retained.
+     * Synchronized: players in different levels sip on different threads.
+     */
+    private static final Map<Player, Sip> SIPS = Collections.synchronizedMap(new WeakHashMap<>());
+
+    /**
+     * In sip mode, drinks one slice every {@code sipIntervalTicks} of the use; the last slice
+     * is drunk by {@link #finishUsingItem}. A slice that comes up short (tank empty, no RF)
+     * or is queued to another dimension ends the drink, so only the slices actually drunk are
+     * drained and charged.
+     */
+    @Override
+    public void onUseTick(@NotNull Level level, @NotNull LivingEntity entity, @NotNull ItemStack stack, int remainingUseDuration) {
+        if (level.isClientSide || !(entity instanceof ServerPlayer player) || !EnderCanteenConfig.SIP_MODE.get()) return;
+        int interval = EnderCanteenConfig.SIP_INTERVAL_TICKS.get();
+        int elapsed = USE_DURATION - remainingUseDuration;
+        if (elapsed <= 0 || elapsed % interval != 0) return;
+
+        int slice = elapsed / interval - 1;
+        Sip sip;
+        if (slice == 0) {
+            sip = new Sip(streams(stack, level) && !LoadShedder.atLeast(LoadShedder.Stage.CRITICAL));
+            SIPS.put(player, sip);
+        } else {
+            sip = SIPS.get(player);
+        }
+        if (sip == null || !sip.streaming) return;
+
+        // Slices end on cumulative targets, so rounding never loses or adds a mB.
+        int slices = (USE_DURATION - 1) / interval + 1;
+        int target = (int) ((long) drinkMb() * (slice + 1) / slices);
+        int wanted = target - sip.drunkMb;
+        int drunk = drink(stack, level, player, false, wanted, sip.drunkMb);
+        if (drunk == QUEUED) {
+            // The link moved to another dimension mid-use: the slice completes there as a drink
+            // of its own, so the local slices end here.
+            if (sip.drunkMb > 0) CanteenStats.increment(CanteenStats.Counter.DRINKS);
+            SIPS.remove(player);
+            player.stopUsingItem();
+            return;
+        }
+        sip.drunkMb += drunk;
+        if (drunk < wanted) {
+            if (drunk > 0) {
+                CanteenStats.increment(CanteenStats.Counter.DRINKS);
+                sendStopPacket(player);
+            }
+            SIPS.remove(player);
+            player.stopUsingItem();
+        }
+    }
+
+    @Override
+    public void releaseUsing(@NotNull ItemStack stack, @NotNull Level level, @NotNull LivingEntity entity, int timeLeft) {
+        // Interrupted: the slices drunk so far have been drained and charged, nothing else is.
+        if (level.isClientSide || !(entity instanceof Player player)) return;
+        Sip sip = SIPS.remove(player);
+        if (sip != null && sip.drunkMb > 0) CanteenStats.increment(CanteenStats.Counter.DRINKS);
+    }
+
+    /**
+     * Cauldron links drain whole levels, and cross-dimension drinks are queued
+     * ({@link CrossDimensionDrains}), so both always drink in one go at the end.
+     */
+    private static boolean streams(ItemStack stack, Level level) {
+        GlobalPos linkedPos = getLinkedPos(stack, level);
+        if (linkedPos == null) return false;
+        Level targetLevel = getTargetLevel(level, linkedPos);
+        return targetLevel == level && targetLevel.isLoaded(linkedPos.pos())
+                && !CauldronClusters.isClusterBlock(targetLevel.getBlockState(linkedPos.pos()));
+    }
+
+    private static final class Sip {
+        final boolean streaming;
+        /** mB drunk by the slices so far. */
+        int drunkMb;
+
+        Sip(boolean streaming) {
+            this.streaming = streaming;
+        }
+    }
+
+    // -------------------------------------------------------------------------
+    // Drink preview (AppleSkin)
+    // -------------------------------------------------------------------------
+
+    /**
+     * Thirst and quench the next drink from this canteen would restore, after RF limiting and
+     * purity scaling, packed as {@code thirst << 16 | quenched}. Returns -1 if the canteen
+     * cannot drink right now (unlinked, unloaded, no handler, nothing drinkable) and for tanks
+     * in another dimension, whose blocks only that dimension's tick may read. Never drains.
+     */
+    public static int previewDrink(ItemStack stack, ServerPlayer player) {
+        GlobalPos linkedPos = getLinkedPos(stack, player.level());
+        if (linkedPos == null) return -1;
+
+        Level targetLevel = getTargetLevel(player.level(), linkedPos);
+        if (targetLevel != player.level() || !targetLevel.isLoaded(linkedPos.pos())) return -1;
+
+        FluidStack drink = peekDrink(targetLevel, linkedPos.pos());
+        DrinkProfile profile = drink != null ? DrinkProfiles.get(drink) : null;
+        if (profile == null) return -1;
+
+        int thirst   = profile.thirstFor(drinkMb());
+        int quenched = profile.quenchedFor(drinkMb());
+        int affordable = affordablePoints(stack, player);
+        if (affordable < thirst + quenched) {
+            quenched = Math.min(quenched, affordable);
+            thirst   = Math.min(thirst,   affordable - quenched);
+        }
+        thirst   = thirst   > 0 ? ThirstCompat.scaleThirst(thirst, drink, targetLevel, linkedPos.pos()) : 0;
+        quenched = quenched > 0 ? ThirstCompat.scaleQuenched(quenched, drink, targetLevel, linkedPos.pos()) : 0;
+        return (thirst << 16) | (quenched & 0xFFFF);
+    }
+
+    /**
+     * The canteen a drink preview is for: main hand first, then off hand. Used by the server
+     * when computing the preview and by the client when deciding which canteen it belongs to.
+     */
+    public static ItemStack heldCanteen(Player player) {
+        if (player.getMainHandItem().getItem() instanceof CanteenItem) return player.getMainHandItem();
+        if (player.getOffhandItem().getItem() instanceof CanteenItem) return player.getOffhandItem();
+        return ItemStack.EMPTY;
+    }
+
+    /** The fluid a drink would come from (purity component included), without draining it. */
+    @Nullable
+    private static FluidStack peekDrink(Level level, BlockPos pos) {
+        return peekDrink(level, pos, getHandlerAt(level, pos));
+    }
+
+    @Nullable
+    private static FluidStack peekDrink(Level level, BlockPos pos, @Nullable IFluidHandler handler) {
+        if (CauldronClusters.isClusterBlock(level.getBlockState(pos))) {
+            return CauldronClusters.drain(level, pos, drinkMb(), FluidAction.SIMULATE);
+        }
+        if (handler == null) return null;
+        for (int i = 0; i < handler.getTanks(); i++) {
+            FluidStack content = handler.getFluidInTank(i);
+            if (DrinkProfiles.isDrinkable(content)) return content;
+        }
+        return null;
     }
 
     // -------------------------------------------------------------------------
     // RF helpers
     // -------------------------------------------------------------------------
 
+    /** Thirst + quench points the canteen's RF pays for ({@link Integer#MAX_VALUE} if RF is free). */
+    private static int affordablePoints(ItemStack stack, ServerPlayer player) {
+        if (!EnderCanteenConfig.RF_ENABLED.get()) return Integer.MAX_VALUE;
+        int costPerPoint = EnderCanteenConfig.RF_COST_PER_THIRST_POINT.get();
+        if (costPerPoint <= 0) return Integer.MAX_VALUE;
+        return storedRf(stack, player) / costPerPoint;
+    }
+
     /** Returns true when the canteen has enough RF for at least one thirst point (or RF is disabled). */
-    private static boolean hasEnoughRf(ItemStack stack) {
+    private static boolean hasEnoughRf(ItemStack stack, ServerPlayer player) {
         if (!EnderCanteenConfig.RF_ENABLED.get()) return true;
         int costPerPoint = EnderCanteenConfig.RF_COST_PER_THIRST_POINT.get();
         if (costPerPoint <= 0) return true;
-        return new CanteenEnergyStorage(stack).getEnergyStored() >= costPerPoint;
+        return storedRf(stack, player) >= costPerPoint;
     }
 
-    /**
-     * Consumes RF for the drink. Returns the adjusted [thirst, quenched] array, or
-     * {@code null} if there is not enough RF (in which case the fluid is refunded into
-     * {@code handler}).
-     */
-    private static int @Nullable [] applyRfCost(ItemStack stack, IFluidHandler handler,
-                                     FluidStack drained, int thirst, int quenched) {
-        if (!EnderCanteenConfig.RF_ENABLED.get()) return new int[]{thirst, quenched};
+    /** RF available to the drink: the player's bank account in bank mode, else the canteen's own. */
+    private static int storedRf(ItemStack stack, ServerPlayer player) {
+        if (EnergyBank.isEnabled()) return EnergyBank.get(player.server).account(player).energy();
+        return CanteenEnergyStorage.of(stack).getEnergyStored();
+    }
+
+    private static int extractRf(ItemStack stack, ServerPlayer player, int amount, boolean simulate) {
+        if (EnergyBank.isEnabled()) return EnergyBank.get(player.server).account(player).withdraw(amount, simulate);
+        return CanteenEnergyStorage.of(stack).extractEnergy(amount, simulate);
+    }
+
+    /** Takes the RF for {@code points} ahead of a drink; returns the RF taken (0 if drinking is free). */
+    private static int reserveRf(ItemStack stack, ServerPlayer player, int points) {
+        if (!EnderCanteenConfig.RF_ENABLED.get()) return 0;
         int costPerPoint = EnderCanteenConfig.RF_COST_PER_THIRST_POINT.get();
-        if (costPerPoint <= 0) return new int[]{thirst, quenched};
+        if (costPerPoint <= 0) return 0;
+        return extractRf(stack, player, points * costPerPoint, false);
+    }
 
-        CanteenEnergyStorage energy = new CanteenEnergyStorage(stack);
-        int totalCost = (thirst + quenched) * costPerPoint;
-        int extracted = energy.extractEnergy(totalCost, true); // simulate
+    /** Puts back RF taken by {@link #reserveRf} that a drink did not cost. */
+    private static void refundRf(ItemStack stack, ServerPlayer player, int amount) {
+        if (amount <= 0) return;
+        if (EnergyBank.isEnabled()) {
+            EnergyBank.get(player.server).account(player).deposit(amount, false);
+        } else {
+            CanteenEnergyStorage.of(stack).receiveEnergy(amount, false);
+        }
+    }
 
-        if (extracted < costPerPoint) {
-            handler.fill(drained, FluidAction.EXECUTE); // refund fluid
-            return null;
+    /**
+     * How much of a drink of {@code mb} to drain so that {@code affordable} points pay for it.
+     * Judged by SIMULATE drains through the block's own strategy, so the fluid that would
+     * actually be drained counts – not just the first tank's – and so does the strategy's
+     * granularity: if even the smallest drain it allows restores more than the RF pays for,
+     * the drink is refused rather than drained and poured back.
+     *
+     * @return the mB to drain, 0 if the RF does not pay for any drain, -1 if nothing drinkable
+     */
+    private static int plannedMb(DrainStrategy strategy, IFluidHandler handler, Level level, BlockPos pos,
+                                 int mb, int drunkBefore, int affordable) {
+        FluidStack simulated = drainWith(strategy, handler, mb, FluidAction.SIMULATE, level, pos);
+        DrinkProfile profile = simulated != null ? DrinkProfiles.get(simulated) : null;
+        if (profile == null) return -1;
+        if (affordable == Integer.MAX_VALUE
+                || profile.pointsFor(Math.min(simulated.getAmount(), mb), drunkBefore) <= affordable) {
+            return mb;
         }
 
-        int affordablePoints = extracted / costPerPoint;
-        int totalPoints = thirst + quenched;
-        if (affordablePoints < totalPoints) {
-            // Scale down: reduce quenched first, then thirst
-            quenched = Math.min(quenched, affordablePoints);
-            thirst   = Math.min(thirst,   affordablePoints - quenched);
+        int reduced = profile.affordableMb(mb, drunkBefore, affordable);
+        if (reduced <= 0) return 0;
+        simulated = drainWith(strategy, handler, reduced, FluidAction.SIMULATE, level, pos);
+        if (simulated == null || DrinkProfiles.get(simulated) != profile) return 0;
+        return profile.pointsFor(Math.min(simulated.getAmount(), reduced), drunkBefore) <= affordable ? reduced : 0;
+    }
+
+    /**
+     * Charges the RF for the drink's points, which {@link #plannedMb} and
+     * {@link #setAffordablePoints} already fitted to the RF available on this tick, so it
+     * cannot fail and never puts fluid back ({@link CanteenStats.Counter#REFILLS} stays 0).
+     * Should a shared bank account have been drawn on from another level in between, the drink
+     * is credited with the points the RF still covers.
+     */
+    private static void chargeRf(ItemStack stack, ServerPlayer player, DrainResult drink) {
+        if (!EnderCanteenConfig.RF_ENABLED.get()) return;
+        int costPerPoint = EnderCanteenConfig.RF_COST_PER_THIRST_POINT.get();
+        if (costPerPoint <= 0) return;
+
+        int available = extractRf(stack, player, (drink.thirst() + drink.quenched()) * costPerPoint, true); // simulate
+        setAffordablePoints(drink, drink.thirst(), drink.quenched(), available / costPerPoint);
+        extractRf(stack, player, (drink.thirst() + drink.quenched()) * costPerPoint, false);
+    }
+
+    /** Sets the drink's points, scaled down to {@code affordable}: quench is reduced first, then thirst. */
+    private static void setAffordablePoints(DrainResult drink, int thirst, int quenched, int affordable) {
+        if (affordable < thirst + quenched) {
+            quenched = Math.min(quenched, affordable);
+            thirst   = Math.min(thirst,   affordable - quenched);
         }
-        energy.extractEnergy((thirst + quenched) * costPerPoint, false); // commit
-        return new int[]{thirst, quenched};
+        drink.setPoints(thirst, quenched);
     }
 
     // -------------------------------------------------------------------------
@@ -271,24 +678,21 @@ public class CanteenItem extends DrinkableItem {
 
     @Override
     public boolean isBarVisible(@NotNull ItemStack stack) {
-        if (!EnderCanteenConfig.RF_ENABLED.get()) return false;
-        CanteenEnergyStorage energy = new CanteenEnergyStorage(stack);
+        if (!EnderCanteenConfig.RF_ENABLED.get() || EnergyBank.isEnabled()) return false;
+        CanteenEnergyStorage energy = CanteenEnergyStorage.of(stack);
         // Always show bar so the player knows the charge level (hide only when full)
         return energy.getMaxEnergyStored() > 0;
     }
 
     @Override
     public int getBarWidth(@NotNull ItemStack stack) {
-        CanteenEnergyStorage energy = new CanteenEnergyStorage(stack);
-        int max = energy.getMaxEnergyStored();
-        if (max <= 0) return 0;
         // getBarWidth must return 0-13 (vanilla uses 13 as full width)
-        return Math.round(13.0f * energy.getEnergyStored() / max);
+        return CanteenEnergyStorage.toBarStep(CanteenEnergyStorage.of(stack).getEnergyStored());
     }
 
     @Override
     public int getBarColor(@NotNull ItemStack stack) {
-        CanteenEnergyStorage energy = new CanteenEnergyStorage(stack);
+        CanteenEnergyStorage energy = CanteenEnergyStorage.of(stack);
         int max = energy.getMaxEnergyStored();
         float ratio = max > 0 ? (float) energy.getEnergyStored() / max : 0f;
         // Interpolate: red (0xFF0000) → yellow (0xFFFF00) → cyan (0x00FFFF)
@@ -309,7 +713,7 @@ public class CanteenItem extends DrinkableItem {
 
     @Override
     public int getUseDuration(@NotNull ItemStack stack, @NotNull LivingEntity entity) {
-        return 32;
+        return USE_DURATION;
     }
 
     @Override
@@ -325,6 +729,14 @@ public class CanteenItem extends DrinkableItem {
     public void appendHoverText(@NotNull ItemStack stack, @NotNull TooltipContext ctx,
                                 @NotNull List<Component> tooltip, @NotNull TooltipFlag flag) {
         GlobalPos pos = stack.get(ModDataComponents.LINKED_POS.get());
+        Integer linkId = stack.get(ModDataComponents.LINK_ID.get());
+        if (pos == null && linkId != null) {
+            // The link table is server-side; the client only knows the id.
+            tooltip.add(Component.translatable("item.endercanteen.canteen.tooltip_link_id", linkId));
+            tooltip.add(Component.translatable("item.endercanteen.canteen.tooltip_drink_amount", drinkMb()));
+            appendRfTooltip(stack, tooltip);
+            return;
+        }
         if (pos == null) {
             tooltip.add(Component.translatable("item.endercanteen.canteen.tooltip_unlinked"));
             tooltip.add(Component.translatable("item.endercanteen.canteen.tooltip_drink_amount", drinkMb()));
@@ -356,17 +768,20 @@ public class CanteenItem extends DrinkableItem {
         IFluidHandler handler = getHandlerAt(level, pos);
         if (handler == null) return;
 
-        int totalWater = 0;
+        int totalDrinkable = 0;
         int totalCapacity = 0;
+        Component fluidName = null;
         Integer purity = null;
 
         for (int i = 0; i < handler.getTanks(); i++) {
             FluidStack content = handler.getFluidInTank(i);
             totalCapacity += handler.getTankCapacity(i);
-            if (content.isEmpty() || !content.getFluid().defaultFluidState().is(FluidTags.WATER)) continue;
+            DrinkProfile profile = DrinkProfiles.get(content);
+            if (profile == null) continue;
 
-            totalWater += content.getAmount();
-            if (purity != null) continue;
+            totalDrinkable += content.getAmount();
+            if (fluidName == null) fluidName = content.getHoverName();
+            if (purity != null || !profile.purity()) continue;
 
             Integer p = content.get(ThirstComponent.PURITY);
             if (p != null) {
@@ -380,7 +795,8 @@ public class CanteenItem extends DrinkableItem {
 
         if (totalCapacity > 0) {
             tooltip.add(Component.translatable("item.endercanteen.canteen.tooltip_fluid",
-                    totalWater, totalCapacity));
+                    fluidName != null ? fluidName : Component.translatable("block.minecraft.water"),
+                    totalDrinkable, totalCapacity));
         }
         if (purity != null) {
             tooltip.add(Component.translatable("item.endercanteen.canteen.tooltip_purity." + purity));
@@ -390,9 +806,13 @@ public class CanteenItem extends DrinkableItem {
     private static void appendRfTooltip(ItemStack stack, List<Component> tooltip) {
         if (!EnderCanteenConfig.RF_ENABLED.get()) return;
 
-        CanteenEnergyStorage energy = new CanteenEnergyStorage(stack);
-        tooltip.add(Component.translatable("item.endercanteen.canteen.tooltip_rf",
-                energy.getEnergyStored(), energy.getMaxEnergyStored()));
+        if (EnergyBank.isEnabled()) {
+            tooltip.add(Component.translatable("item.endercanteen.canteen.tooltip_rf_bank"));
+        } else {
+            CanteenEnergyStorage energy = CanteenEnergyStorage.of(stack);
+            tooltip.add(Component.translatable("item.endercanteen.canteen.tooltip_rf",
+                    energy.getEnergyStored(), energy.getMaxEnergyStored()));
+        }
 
         int costPerPoint = EnderCanteenConfig.RF_COST_PER_THIRST_POINT.get();
         if (costPerPoint <= 0) return;
@@ -414,6 +834,41 @@ public class CanteenItem extends DrinkableItem {
         PacketDistributor.sendToPlayer(player, new StopDrinkingPacket());
     }
 
+    /**
+     * Reports a failed drink to the player (optional message + StopDrinkingPacket).
+     * Does nothing for silent (automatic) drinks.
+     */
+    private static void rejectDrink(ServerPlayer player, @Nullable Component message, boolean silent) {
+        if (silent) return;
+        if (message != null) {
+            player.displayClientMessage(message, true);
+        }
+        sendStopPacket(player);
+    }
+
+    /** Message shown instead of a drink attempt while the linked handler is blacklisted. */
+    private static Component trippedMessage(long openMillis) {
+        return Component.translatable("item.endercanteen.canteen.handler_tripped",
+                Math.max(1, (openMillis + 999) / 1000));
+    }
+
+    /** True if the canteen is linked, by position or by link id. */
+    public static boolean isLinked(ItemStack stack) {
+        return stack.has(ModDataComponents.LINKED_POS.get()) || stack.has(ModDataComponents.LINK_ID.get());
+    }
+
+    /**
+     * The canteen's link target: its link id resolved through the server's {@link LinkTable},
+     * or else the stored position. Id links resolve to null on the client.
+     */
+    @Nullable
+    public static GlobalPos getLinkedPos(ItemStack stack, Level level) {
+        Integer id = stack.get(ModDataComponents.LINK_ID.get());
+        if (id == null) return stack.get(ModDataComponents.LINKED_POS.get());
+        MinecraftServer server = level.getServer();
+        return server != null ? LinkTable.get(server).target(id) : null;
+    }
+
     /**
      * Resolves the target Level for a GlobalPos.
      * Works cross-dimensionally on the logical server via MinecraftServer.getLevel().
@@ -431,98 +886,77 @@ public class CanteenItem extends DrinkableItem {
     }
 
     /**
-     * Drains water from the handler, returning the drained FluidStack (capped at mb).
-     *
-     * <p>For blocks backed by {@link CauldronFluidContent} (vanilla/modded cauldrons) we
-     * manipulate the BlockState directly instead of going through {@code CauldronWrapper}.
-     * {@code CauldronWrapper.updateLevel()} calls {@code block.defaultBlockState()} and then
-     * sets only the level property – silently dropping any extra BlockState properties added
-     * by mods (e.g. ThirstWasTaken's BLOCK_PURITY), which empties the cauldron completely.
+     * Drains a drink of up to {@code mb} from the handler and captures it in this thread's
+     * {@link DrainResult}, or returns null if nothing drinkable could be drained.
+     */
+    @Nullable
+    private static DrainResult drainDrink(DrainStrategy strategy, IFluidHandler handler, int mb, Level level,
+                                          BlockPos pos) {
+        FluidStack drained = drainWith(strategy, handler, mb, FluidAction.EXECUTE, level, pos);
+        if (drained == null || drained.isEmpty()) return null;
+        return DrainResult.forThread().set(drained, Math.min(drained.getAmount(), mb),
+                strategy == DrainStrategies.CAULDRON ? DrainResult.Source.CAULDRON : DrainResult.Source.HANDLER);
+    }
+
+    /**
+     * Drains a drinkable fluid (see {@link DrinkProfiles}) from the handler, returning the
+     * drained FluidStack (capped at mb).
      *
-     * <p>For all other handlers the standard {@code drain(int, FluidAction)} path is used,
-     * with a doubling-probe SIMULATE fallback for handlers that use coarse drain increments.
+     * <p>How is up to the {@link DrainStrategy} registered for the linked block (see
+     * {@link DrainStrategies}): cauldrons drain through their BlockState, known tanks drain
+     * exactly, anything else is probed. Monitored strategies are timed and checked by the
+     * {@link HandlerCircuitBreaker}.
      */
     @Nullable
     private static FluidStack findWaterStack(IFluidHandler handler, int mb, FluidAction action,
-                                             @Nullable Level level, @Nullable BlockPos pos) {
-        // --- Cauldron fast-path: manipulate BlockState directly ---
-        if (level != null && pos != null) {
-            net.minecraft.world.level.block.state.BlockState state = level.getBlockState(pos);
-            CauldronFluidContent cauldron = CauldronFluidContent.getForBlock(state.getBlock());
-            if (cauldron != null && cauldron.fluid.defaultFluidState().is(FluidTags.WATER)) {
-                int currentLevel = cauldron.currentLevel(state);
-                if (currentLevel <= 0) return null;
-
-                int oneLevelMb = cauldron.totalAmount / cauldron.maxLevel;
-                if (oneLevelMb <= 0) return null;
-
-                boolean drainFull = EnderCanteenConfig.CAULDRON_DRAIN_FULL.get();
-                int levelsToRemove = drainFull ? currentLevel : 1;
-                int drainedMb = Math.min(oneLevelMb * levelsToRemove, mb);
-
-                if (action.execute()) {
-                    int newLevel = currentLevel - levelsToRemove;
-                    net.minecraft.world.level.block.state.BlockState newState;
-                    if (newLevel == 0) {
-                        newState = net.minecraft.world.level.block.Blocks.CAULDRON.defaultBlockState();
-                    } else if (cauldron.levelProperty != null) {
-                        newState = state.setValue(cauldron.levelProperty, newLevel); // preserves BLOCK_PURITY and all other properties
-                    } else {
-                        return null; // no level property – cannot partially drain
-                    }
-                    level.setBlockAndUpdate(pos, newState);
-                }
-                return new FluidStack(cauldron.fluid, drainedMb);
-            }
-        }
-
-        // --- Normal handler path ---
-        for (int i = 0; i < handler.getTanks(); i++) {
-            FluidStack content = handler.getFluidInTank(i);
-            if (content.isEmpty()) continue;
-            if (!content.getFluid().defaultFluidState().is(FluidTags.WATER)) continue;
+                                             Level level, BlockPos pos) {
+        return drainWith(DrainStrategies.resolve(level, pos), handler, mb, action, level, pos);
+    }
 
-            // Try exactly mb mB first (works for fine-grained handlers like Create tanks).
-            FluidStack result = handler.drain(mb, action);
-            if (!result.isEmpty() && result.getFluid().defaultFluidState().is(FluidTags.WATER)) {
-                return result;
-            }
+    @Nullable
+    private static FluidStack drainWith(DrainStrategy strategy, IFluidHandler handler, int mb, FluidAction action,
+                                        Level level, BlockPos pos) {
+        if (!strategy.monitored()) return strategy.drain(level, pos, handler, mb, action);
+
+        long start = HandlerCircuitBreaker.begin();
+        try {
+            FluidStack result = strategy.drain(level, pos, handler, mb, action);
+            HandlerCircuitBreaker.end(handler, level, pos, start);
+            return result;
+        } catch (RuntimeException e) {
+            HandlerCircuitBreaker.error(handler, level, pos, e);
+            return null;
+        }
+    }
 
-            // Coarse-increment fallback: find the minimum drainable amount via doubling
-            // SIMULATE probes. Probe up to capacity*2 so we don't miss increments equal
-            // to capacity (probe jumps 512 → 1024 while capacity = 1000).
-            int capacity = handler.getTankCapacity(i);
-            int probe = 1;
-            int minIncrement = 0;
-            while (probe <= (long) capacity * 2) {
-                FluidStack probeResult = handler.drain(probe, FluidAction.SIMULATE);
-                if (!probeResult.isEmpty() && probeResult.getFluid().defaultFluidState().is(FluidTags.WATER)) {
-                    minIncrement = probeResult.getAmount();
-                    break;
-                }
-                probe = (probe >= Integer.MAX_VALUE / 2) ? Integer.MAX_VALUE : probe * 2;
-            }
-            if (minIncrement <= 0) continue;
+    /**
+     * True if a same-dimension link points at a position {@link DeadLinks} knows has no fluid
+     * handler, so the drink can fail before any world lookup. Cross-dimension links are checked
+     * on the tank's own level tick instead.
+     */
+    private static boolean isDeadLink(Level level, GlobalPos linkedPos) {
+        return level instanceof ServerLevel serverLevel
+                && serverLevel.dimension() == linkedPos.dimension()
+                && DeadLinks.isDead(serverLevel, linkedPos.pos());
+    }
 
-            if (action.execute()) {
-                FluidStack drained = handler.drain(minIncrement, FluidAction.EXECUTE);
-                if (!drained.isEmpty() && drained.getFluid().defaultFluidState().is(FluidTags.WATER)) {
-                    return drained.copyWithAmount(Math.min(drained.getAmount(), mb));
-                }
-            } else {
-                FluidStack sim = handler.drain(minIncrement, FluidAction.SIMULATE);
-                if (!sim.isEmpty() && sim.getFluid().defaultFluidState().is(FluidTags.WATER)) {
-                    return sim.copyWithAmount(Math.min(sim.getAmount(), mb));
-                }
-            }
+    /** {@link #getHandlerAt} for drink targets: skips known-dead links and records new ones. */
+    @Nullable
+    private static IFluidHandler getLinkedHandler(Level level, BlockPos pos) {
+        if (!(level instanceof ServerLevel serverLevel)) return getHandlerAt(level, pos);
+        if (DeadLinks.isDead(serverLevel, pos)) return null;
+        IFluidHandler handler = getHandlerAt(level, pos);
+        // A tap without a tank next to it is not dead: it comes back when one is placed
+        if (handler == null && !(level.getBlockEntity(pos) instanceof FluidTapBlockEntity)) {
+            DeadLinks.markDead(serverLevel, pos);
         }
-        return null;
+        return handler;
     }
 
     @Nullable
     private static IFluidHandler getHandlerAt(Level level, BlockPos pos) {
         BlockEntity be = level.getBlockEntity(pos);
-        if (be instanceof FluidTapBlockEntity tap) return tap.findAdjacentHandler();
+        if (be instanceof FluidTapBlockEntity tap) return tap.getFluidHandler();
 
         IFluidHandler handler = level.getCapability(Capabilities.FluidHandler.BLOCK, pos, null);
         if (handler != null) return handler;
@@ -0,0 +1,112 @@
+package com.intelpentium.endercanteen.item;
+
+import com.intelpentium.endercanteen.fluid.DrainResult;
+import net.minecraft.core.BlockPos;
+import net.minecraft.network.chat.Component;
+import net.minecraft.resources.ResourceKey;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.server.level.ServerPlayer;
+import net.minecraft.world.item.ItemStack;
+import net.minecraft.world.level.Level;
+import net.neoforged.bus.api.IEventBus;
+import net.neoforged.neoforge.event.server.ServerStoppedEvent;
+import net.neoforged.neoforge.event.tick.LevelTickEvent;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Runs drinks whose linked tank is in another dimension on that dimension's own tick.
+ *
+ * <p>Servers with parallel-dimension mods tick every {@link ServerLevel} on its own thread,
+ * so the player's level must never touch another level's blocks or handlers. A
+ * cross-dimension drink is split in two halves instead:
+ * <ol>
+ *   <li>the RF the drink can cost at most is taken from the canteen (or bank account) when it
+ *       is queued, so it cannot be spent elsewhere while the drink is in flight;</li>
+ *   <li>the {@link Request} is queued for the target level and drained at the end of that
+ *       level's tick – purity is captured there in the {@link DrainResult};</li>
+ *   <li>the {@link Result} is queued for the player's level, where thirst is credited and the
+ *       part of the reserved RF the drink did not cost is refunded at the end of its next tick.</li>
+ * </ol>
+ * A cross-dimension drink therefore completes one or two ticks after the use animation ends.
+ */
+public final class CrossDimensionDrains {
+
+    private static final Map<ResourceKey<Level>, Queue<Request>> REQUESTS = new ConcurrentHashMap<>();
+    private static final Map<ResourceKey<Level>, Queue<Result>> RESULTS = new ConcurrentHashMap<>();
+
+    private CrossDimensionDrains() {}
+
+    public static void register(IEventBus bus) {
+        bus.addListener(CrossDimensionDrains::onLevelTick);
+        bus.addListener(CrossDimensionDrains::onServerStopped);
+    }
+
+    /**
+     * A drink of {@code mb} from {@code pos} in {@code target}. {@code maxPoints} is the thirst
+     * + quench the player's RF paid for when the drink was queued, and {@code reservedRf} the RF
+     * taken for them (0 if drinking is free).
+     */
+    record Request(ServerPlayer player, ItemStack stack, ServerLevel target, BlockPos pos,
+                   int mb, int maxPoints, int reservedRf, boolean silent) {}
+
+    /**
+     * Outcome of a {@link Request}: a detached copy of the drain (purity and points included),
+     * or the message to reject the drink with.
+     */
+    record Result(Request request, @Nullable DrainResult drink, @Nullable Component failure) {
+
+        static Result failed(Request request, @Nullable Component failure) {
+            return new Result(request, null, failure);
+        }
+    }
+
+    static void submit(Request request) {
+        REQUESTS.computeIfAbsent(request.target().dimension(), k -> new ConcurrentLinkedQueue<>()).add(request);
+    }
+
+    private static void onLevelTick(LevelTickEvent.Post event) {
+        if (!(event.getLevel() instanceof ServerLevel level)) return;
+        ResourceKey<Level> dimension = level.dimension();
+
+        // Drains for tanks in this level
+        Queue<Request> requests = REQUESTS.get(dimension);
+        if (requests != null) {
+            Request request;
+            while ((request = requests.poll()) != null) {
+                Result result = CanteenItem.drainRemote(request);
+                RESULTS.computeIfAbsent(request.player().level().dimension(), k -> new ConcurrentLinkedQueue<>())
+                        .add(result);
+            }
+        }
+
+        // Results for players in this level
+        Queue<Result> results = RESULTS.get(dimension);
+        if (results != null) {
+            Result result;
+            while ((result = results.poll()) != null) {
+                ServerPlayer player = result.request().player();
+                if (player.hasDisconnected()) {
+                    CanteenItem.refundRemote(result.request());
+                    continue;
+                }
+                if (player.level().dimension().equals(dimension)) {
+                    CanteenItem.creditRemote(result);
+                } else {
+                    // Changed dimension in between: credit on the new level's tick.
+                    RESULTS.computeIfAbsent(player.level().dimension(), k -> new ConcurrentLinkedQueue<>()).add(result);
+                }
+            }
+        }
+    }
+
+    @SuppressWarnings("unused") // event parameter required by NeoForge event bus signature
+    private static void onServerStopped(ServerStoppedEvent event) {
+        REQUESTS.clear();
+        RESULTS.clear();
+    }
+}
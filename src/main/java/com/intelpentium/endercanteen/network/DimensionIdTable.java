@@ -0,0 +1,80 @@
+package com.intelpentium.endercanteen.network;
+
+import io.netty.handler.codec.DecoderException;
+import it.unimi.dsi.fastutil.objects.Object2IntMap;
+import it.unimi.dsi.fastutil.objects.Object2IntOpenHashMap;
+import net.minecraft.core.registries.Registries;
+import net.minecraft.network.FriendlyByteBuf;
+import net.minecraft.resources.ResourceKey;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.world.level.Level;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Per-session table of dimension ids for the compact {@code LINKED_POS} network codec.
+ *
+ * <p>The server builds the table once when it has started (all dimensions sorted by id) and
+ * sends it to every client during the configuration phase ({@link DimensionTablePacket}),
+ * before any item stack is synced. A dimension is then written as a single varint:
+ * {@code n > 0} is entry {@code n - 1} of the table, {@code 0} means the full key follows
+ * inline – used for dimensions created after the table was built.
+ */
+public final class DimensionIdTable {
+
+    private static volatile Snapshot current = Snapshot.EMPTY;
+
+    private DimensionIdTable() {}
+
+    /** Builds the server's table. Called once the server has started. */
+    public static void build(MinecraftServer server) {
+        List<ResourceKey<Level>> keys = new ArrayList<>();
+        server.levelKeys().forEach(keys::add);
+        keys.sort(Comparator.comparing(ResourceKey::location));
+        current = new Snapshot(List.copyOf(keys));
+    }
+
+    /** Replaces the table with the one received from the server (client side). */
+    public static void accept(List<ResourceKey<Level>> keys) {
+        current = new Snapshot(List.copyOf(keys));
+    }
+
+    public static void clear() {
+        current = Snapshot.EMPTY;
+    }
+
+    public static List<ResourceKey<Level>> keys() {
+        return current.keys;
+    }
+
+    public static void write(FriendlyByteBuf buf, ResourceKey<Level> dimension) {
+        int id = current.ids.getInt(dimension);
+        buf.writeVarInt(id + 1); // -1 (not in table) → 0 → inline key
+        if (id < 0) buf.writeResourceKey(dimension);
+    }
+
+    public static ResourceKey<Level> read(FriendlyByteBuf buf) {
+        int id = buf.readVarInt();
+        if (id == 0) return buf.readResourceKey(Registries.DIMENSION);
+        List<ResourceKey<Level>> keys = current.keys;
+        if (id > keys.size()) throw new DecoderException("Unknown dimension id " + id);
+        return keys.get(id - 1);
+    }
+
+    private static final class Snapshot {
+
+        static final Snapshot EMPTY = new Snapshot(List.of());
+
+        final List<ResourceKey<Level>> keys;
+        final Object2IntMap<ResourceKey<Level>> ids;
+
+        Snapshot(List<ResourceKey<Level>> keys) {
+            this.keys = keys;
+            this.ids = new Object2IntOpenHashMap<>(keys.size());
+            this.ids.defaultReturnValue(-1);
+            for (int i = 0; i < keys.size(); i++) ids.put(keys.get(i), i);
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package com.intelpentium.endercanteen.network;
+
+import net.minecraft.core.registries.Registries;
+import net.minecraft.network.FriendlyByteBuf;
+import net.minecraft.network.codec.ByteBufCodecs;
+import net.minecraft.network.codec.StreamCodec;
+import net.minecraft.network.protocol.common.custom.CustomPacketPayload;
+import net.minecraft.resources.ResourceKey;
+import net.minecraft.resources.ResourceLocation;
+import net.minecraft.world.level.Level;
+import net.neoforged.neoforge.network.handling.IPayloadContext;
+
+import java.util.List;
+
+/**
+ * Sent server → client during the configuration phase with the session's
+ * {@link DimensionIdTable}. Handled directly on the network thread so the table is in
+ * place before the first play-phase packet carrying a linked canteen is decoded.
+ */
+public record DimensionTablePacket(List<ResourceKey<Level>> dimensions) implements CustomPacketPayload {
+
+    public static final Type<DimensionTablePacket> TYPE =
+            new Type<>(ResourceLocation.fromNamespaceAndPath("endercanteen", "dimension_table"));
+
+    public static final StreamCodec<FriendlyByteBuf, DimensionTablePacket> CODEC = StreamCodec.composite(
+            ResourceKey.streamCodec(Registries.DIMENSION).apply(ByteBufCodecs.list()),
+            DimensionTablePacket::dimensions,
+            DimensionTablePacket::new
+    );
+
+    @Override
+    public Type<? extends CustomPacketPayload> type() {
+        return TYPE;
+    }
+
+    public static void handle(DimensionTablePacket packet, IPayloadContext ctx) {
+        DimensionIdTable.accept(packet.dimensions());
+    }
+}
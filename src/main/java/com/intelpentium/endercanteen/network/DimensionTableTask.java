@@ -0,0 +1,29 @@
+package com.intelpentium.endercanteen.network;
+
+import net.minecraft.network.protocol.common.custom.CustomPacketPayload;
+import net.minecraft.network.protocol.configuration.ServerConfigurationPacketListener;
+import net.minecraft.resources.ResourceLocation;
+import net.minecraft.server.network.ConfigurationTask;
+import net.neoforged.neoforge.network.configuration.ICustomConfigurationTask;
+
+import java.util.function.Consumer;
+
+/**
+ * Configuration task that sends the {@link DimensionIdTable} to a connecting client.
+ */
+public record DimensionTableTask(ServerConfigurationPacketListener listener) implements ICustomConfigurationTask {
+
+    public static final ConfigurationTask.Type TYPE =
+            new ConfigurationTask.Type(ResourceLocation.fromNamespaceAndPath("endercanteen", "dimension_table"));
+
+    @Override
+    public void run(Consumer<CustomPacketPayload> sender) {
+        sender.accept(new DimensionTablePacket(DimensionIdTable.keys()));
+        listener.finishCurrentTask(TYPE);
+    }
+
+    @Override
+    public ConfigurationTask.Type type() {
+        return TYPE;
+    }
+}
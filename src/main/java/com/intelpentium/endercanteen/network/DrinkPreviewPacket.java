@@ -0,0 +1,53 @@
+package com.intelpentium.endercanteen.network;
+
+import net.minecraft.network.RegistryFriendlyByteBuf;
+import net.minecraft.network.codec.ByteBufCodecs;
+import net.minecraft.network.codec.StreamCodec;
+import net.minecraft.network.protocol.common.custom.CustomPacketPayload;
+import net.minecraft.resources.ResourceLocation;
+import net.neoforged.neoforge.network.handling.IPayloadContext;
+
+/**
+ * Sent server → client whenever the drink preview of the player's held canteen changes:
+ * the thirst and quench the next drink would actually restore (purity and RF applied).
+ * {@code thirst < 0} means "no preview", and the client falls back to the nominal values.
+ */
+public record DrinkPreviewPacket(int thirst, int quenched) implements CustomPacketPayload {
+
+    public static final DrinkPreviewPacket NONE = new DrinkPreviewPacket(-1, -1);
+
+    public static final Type<DrinkPreviewPacket> TYPE =
+            new Type<>(ResourceLocation.fromNamespaceAndPath("endercanteen", "drink_preview"));
+
+    public static final StreamCodec<RegistryFriendlyByteBuf, DrinkPreviewPacket> CODEC = StreamCodec.composite(
+            ByteBufCodecs.VAR_INT, DrinkPreviewPacket::thirst,
+            ByteBufCodecs.VAR_INT, DrinkPreviewPacket::quenched,
+            DrinkPreviewPacket::new
+    );
+
+    /** Latest preview received by this client; reset on logout, as the next server may not send one. */
+    private static volatile DrinkPreviewPacket clientPreview = NONE;
+
+    public static DrinkPreviewPacket clientPreview() {
+        return clientPreview;
+    }
+
+    /** Forgets the preview; called when the client leaves a server. */
+    public static void clearClientPreview() {
+        clientPreview = NONE;
+    }
+
+    public boolean isPresent() {
+        return thirst >= 0;
+    }
+
+    @Override
+    public Type<? extends CustomPacketPayload> type() {
+        return TYPE;
+    }
+
+    /** Called on the client thread when the packet is received. */
+    public static void handle(DrinkPreviewPacket packet, IPayloadContext ctx) {
+        ctx.enqueueWork(() -> clientPreview = packet);
+    }
+}
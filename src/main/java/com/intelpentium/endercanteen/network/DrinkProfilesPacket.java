@@ -0,0 +1,43 @@
+package com.intelpentium.endercanteen.network;
+
+import com.intelpentium.endercanteen.fluid.DrinkProfile;
+import com.intelpentium.endercanteen.fluid.DrinkProfiles;
+import net.minecraft.core.registries.Registries;
+import net.minecraft.network.RegistryFriendlyByteBuf;
+import net.minecraft.network.codec.ByteBufCodecs;
+import net.minecraft.network.codec.StreamCodec;
+import net.minecraft.network.protocol.common.custom.CustomPacketPayload;
+import net.minecraft.resources.ResourceLocation;
+import net.minecraft.world.level.material.Fluid;
+import net.neoforged.neoforge.network.handling.IPayloadContext;
+
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+/**
+ * Sent server → client on join and after {@code /reload}: the compiled table of drinkable
+ * fluids, so tooltips and previews agree with the server's datapacks.
+ */
+public record DrinkProfilesPacket(Map<Fluid, DrinkProfile> profiles) implements CustomPacketPayload {
+
+    public static final Type<DrinkProfilesPacket> TYPE =
+            new Type<>(ResourceLocation.fromNamespaceAndPath("endercanteen", "drink_profiles"));
+
+    private static final StreamCodec<RegistryFriendlyByteBuf, Map<Fluid, DrinkProfile>> PROFILES_CODEC =
+            ByteBufCodecs.map(IdentityHashMap::new, ByteBufCodecs.registry(Registries.FLUID), DrinkProfile.STREAM_CODEC);
+
+    public static final StreamCodec<RegistryFriendlyByteBuf, DrinkProfilesPacket> CODEC = StreamCodec.composite(
+            PROFILES_CODEC, DrinkProfilesPacket::profiles,
+            DrinkProfilesPacket::new
+    );
+
+    @Override
+    public Type<? extends CustomPacketPayload> type() {
+        return TYPE;
+    }
+
+    /** Called on the client thread when the packet is received. */
+    public static void handle(DrinkProfilesPacket packet, IPayloadContext ctx) {
+        ctx.enqueueWork(() -> DrinkProfiles.accept(packet.profiles()));
+    }
+}
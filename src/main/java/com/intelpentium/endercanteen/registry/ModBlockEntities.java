@@ -2,6 +2,8 @@ package com.intelpentium.endercanteen.registry;
 
 import com.intelpentium.endercanteen.EnderCanteen;
 import com.intelpentium.endercanteen.blockentity.FluidTapBlockEntity;
+import com.intelpentium.endercanteen.blockentity.PurifyingFluidTapBlockEntity;
+import com.intelpentium.endercanteen.blockentity.RainCollectingFluidTapBlockEntity;
 import net.minecraft.core.registries.BuiltInRegistries;
 import net.minecraft.world.level.block.entity.BlockEntityType;
 import net.neoforged.bus.api.IEventBus;
@@ -18,6 +20,16 @@ public class ModBlockEntities {
             BLOCK_ENTITIES.register("fluid_tap", () ->
                     BlockEntityType.Builder.of(FluidTapBlockEntity::new, ModBlocks.FLUID_TAP.get()).build(null));
 
+    @SuppressWarnings("DataFlowIssue")
+    public static final DeferredHolder<BlockEntityType<?>, BlockEntityType<PurifyingFluidTapBlockEntity>> PURIFYING_FLUID_TAP =
+            BLOCK_ENTITIES.register("purifying_fluid_tap", () ->
+                    BlockEntityType.Builder.of(PurifyingFluidTapBlockEntity::new, ModBlocks.PURIFYING_FLUID_TAP.get()).build(null));
+
+    @SuppressWarnings("DataFlowIssue")
+    public static final DeferredHolder<BlockEntityType<?>, BlockEntityType<RainCollectingFluidTapBlockEntity>> RAIN_COLLECTING_FLUID_TAP =
+            BLOCK_ENTITIES.register("rain_collecting_fluid_tap", () ->
+                    BlockEntityType.Builder.of(RainCollectingFluidTapBlockEntity::new, ModBlocks.RAIN_COLLECTING_FLUID_TAP.get()).build(null));
+
     public static void register(IEventBus bus) {
         BLOCK_ENTITIES.register(bus);
     }
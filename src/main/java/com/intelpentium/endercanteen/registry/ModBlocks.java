@@ -2,6 +2,8 @@ package com.intelpentium.endercanteen.registry;
 
 import com.intelpentium.endercanteen.EnderCanteen;
 import com.intelpentium.endercanteen.block.FluidTapBlock;
+import com.intelpentium.endercanteen.block.PurifyingFluidTapBlock;
+import com.intelpentium.endercanteen.block.RainCollectingFluidTapBlock;
 import net.minecraft.world.level.block.state.BlockBehaviour;
 import net.minecraft.world.level.material.MapColor;
 import net.neoforged.bus.api.IEventBus;
@@ -15,6 +17,12 @@ public class ModBlocks {
     public static final DeferredBlock<FluidTapBlock> FLUID_TAP = BLOCKS.register("fluid_tap",
             () -> new FluidTapBlock(BlockBehaviour.Properties.of().mapColor(MapColor.METAL).strength(2.5f, 6.0f).requiresCorrectToolForDrops()));
 
+    public static final DeferredBlock<PurifyingFluidTapBlock> PURIFYING_FLUID_TAP = BLOCKS.register("purifying_fluid_tap",
+            () -> new PurifyingFluidTapBlock(BlockBehaviour.Properties.of().mapColor(MapColor.METAL).strength(2.5f, 6.0f).requiresCorrectToolForDrops()));
+
+    public static final DeferredBlock<RainCollectingFluidTapBlock> RAIN_COLLECTING_FLUID_TAP = BLOCKS.register("rain_collecting_fluid_tap",
+            () -> new RainCollectingFluidTapBlock(BlockBehaviour.Properties.of().mapColor(MapColor.METAL).strength(2.5f, 6.0f).requiresCorrectToolForDrops()));
+
     public static void register(IEventBus bus) {
         BLOCKS.register(bus);
     }
@@ -1,52 +1,125 @@
 package com.intelpentium.endercanteen.registry;
 
+import com.google.common.collect.Interner;
+import com.google.common.collect.Interners;
 import com.intelpentium.endercanteen.EnderCanteen;
+import com.intelpentium.endercanteen.item.CanteenEnergyStorage;
+import com.intelpentium.endercanteen.network.DimensionIdTable;
+import com.intelpentium.endercanteen.server.LinkTable;
 import com.mojang.serialization.Codec;
+import net.minecraft.core.BlockPos;
 import net.minecraft.core.GlobalPos;
 import net.minecraft.core.component.DataComponentType;
 import net.minecraft.core.registries.Registries;
 import net.minecraft.network.FriendlyByteBuf;
 import net.minecraft.network.codec.ByteBufCodecs;
 import net.minecraft.network.codec.StreamCodec;
+import net.minecraft.resources.ResourceKey;
+import net.minecraft.world.level.Level;
 import net.neoforged.bus.api.IEventBus;
 import net.neoforged.neoforge.registries.DeferredHolder;
 import net.neoforged.neoforge.registries.DeferredRegister;
 
+import java.util.function.Function;
+
 public class ModDataComponents {
 
     public static final DeferredRegister<DataComponentType<?>> DATA_COMPONENTS =
             DeferredRegister.create(Registries.DATA_COMPONENT_TYPE, EnderCanteen.MODID);
 
+    /**
+     * Weak interning table for link targets. Thousands of canteens linked to the same tank
+     * (e.g. in an AE2 / Refined Storage network) share one {@link GlobalPos} instance instead
+     * of each decode allocating its own; unused entries are collected with their last stack.
+     */
+    private static final Interner<GlobalPos> LINK_INTERNER = Interners.newWeakInterner();
+
+    /** Persistent codec for link targets; decoded values are interned. */
+    public static final Codec<GlobalPos> LINK_CODEC =
+            GlobalPos.CODEC.xmap(ModDataComponents::internLink, Function.identity());
+
+    /** Returns the canonical instance for {@code pos}. */
+    public static GlobalPos internLink(GlobalPos pos) {
+        return LINK_INTERNER.intern(pos);
+    }
+
     /**
      * Stores the linked block position (dimension + BlockPos) in the Canteen item stack.
+     * Synced with the compact {@link #encodeGlobalPos} format.
      */
     public static final DeferredHolder<DataComponentType<?>, DataComponentType<GlobalPos>> LINKED_POS =
             DATA_COMPONENTS.register("linked_pos", () ->
                     DataComponentType.<GlobalPos>builder()
-                            .persistent(GlobalPos.CODEC)
+                            .persistent(LINK_CODEC)
                             .networkSynchronized(StreamCodec.of(
                                     ModDataComponents::encodeGlobalPos,
                                     ModDataComponents::decodeGlobalPos
                             ))
                             .build());
 
+    /**
+     * Dimension as a varint id from the session's {@link DimensionIdTable}, followed by the
+     * coordinates as zig-zag varints – typically 5-8 bytes instead of the full dimension
+     * key string plus an 8-byte packed position.
+     */
     private static void encodeGlobalPos(FriendlyByteBuf buf, GlobalPos pos) {
-        buf.writeResourceKey(pos.dimension());
-        buf.writeBlockPos(pos.pos());
+        DimensionIdTable.write(buf, pos.dimension());
+        BlockPos p = pos.pos();
+        buf.writeVarInt(zigZag(p.getX()));
+        buf.writeVarInt(zigZag(p.getY()));
+        buf.writeVarInt(zigZag(p.getZ()));
     }
 
     private static GlobalPos decodeGlobalPos(FriendlyByteBuf buf) {
-        return GlobalPos.of(buf.readResourceKey(Registries.DIMENSION), buf.readBlockPos());
+        ResourceKey<Level> dimension = DimensionIdTable.read(buf);
+        int x = unZigZag(buf.readVarInt());
+        int y = unZigZag(buf.readVarInt());
+        int z = unZigZag(buf.readVarInt());
+        return internLink(GlobalPos.of(dimension, new BlockPos(x, y, z)));
+    }
+
+    private static int zigZag(int value) {
+        return (value << 1) ^ (value >> 31);
+    }
+
+    private static int unZigZag(int value) {
+        return (value >>> 1) ^ -(value & 1);
     }
 
+    /**
+     * Id of the canteen's link in the server's {@link LinkTable}, stored instead of
+     * {@link #LINKED_POS} while {@code linkTableEnabled} is set.
+     */
+    public static final DeferredHolder<DataComponentType<?>, DataComponentType<Integer>> LINK_ID =
+            DATA_COMPONENTS.register("link_id", () ->
+                    DataComponentType.<Integer>builder()
+                            .persistent(Codec.INT)
+                            .networkSynchronized(ByteBufCodecs.VAR_INT)
+                            .build());
+
     /**
      * Stores the current RF energy stored in the Canteen item stack.
+     * Synced exactly as a varint (1-3 bytes for the default capacity): clients show it in the
+     * tooltip, and creative-mode clients send slot contents back to the server.
      */
     public static final DeferredHolder<DataComponentType<?>, DataComponentType<Integer>> RF_STORED =
             DATA_COMPONENTS.register("rf_stored", () ->
                     DataComponentType.<Integer>builder()
                             .persistent(Codec.INT)
-                            .networkSynchronized(ByteBufCodecs.INT)
+                            .networkSynchronized(ByteBufCodecs.VAR_INT)
+                            .build());
+
+    /**
+     * Passive recharge anchor for {@link #RF_STORED}, see {@link CanteenEnergyStorage.Recharge}.
+     * Clients do not read it, but synced all the same (two varints): creative-mode clients send
+     * slot contents back to the server, and an unsynced anchor would be stripped on the way,
+     * stopping the canteen's recharge.
+     */
+    public static final DeferredHolder<DataComponentType<?>, DataComponentType<CanteenEnergyStorage.Recharge>> RF_RECHARGE =
+            DATA_COMPONENTS.register("rf_recharge", () ->
+                    DataComponentType.<CanteenEnergyStorage.Recharge>builder()
+                            .persistent(CanteenEnergyStorage.Recharge.CODEC)
+                            .networkSynchronized(CanteenEnergyStorage.Recharge.STREAM_CODEC)
                             .build());
 
     public static void register(IEventBus bus) {
@@ -0,0 +1,231 @@
+package com.intelpentium.endercanteen.server;
+
+import com.intelpentium.endercanteen.EnderCanteenConfig;
+import com.intelpentium.endercanteen.compat.ThirstCompat;
+import com.intelpentium.endercanteen.item.CanteenItem;
+import net.minecraft.server.level.ServerPlayer;
+import net.minecraft.world.entity.player.Inventory;
+import net.minecraft.world.inventory.AbstractContainerMenu;
+import net.minecraft.world.inventory.ContainerListener;
+import net.minecraft.world.inventory.Slot;
+import net.minecraft.world.item.ItemStack;
+import net.neoforged.bus.api.IEventBus;
+import net.neoforged.neoforge.event.entity.player.PlayerEvent;
+import net.neoforged.neoforge.event.server.ServerStoppedEvent;
+import net.neoforged.neoforge.event.tick.ServerTickEvent;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Automatic drinking from linked canteens carried anywhere in a player's inventory.
+ *
+ * <p>Nothing here scans inventories per tick. A {@link ContainerListener} on each player's
+ * inventory menu keeps a bitmask of the inventory slots that hold a linked canteen, updated
+ * only when a slot actually changes. Players with a non-empty mask are placed on a timing
+ * wheel of {@link #WHEEL_SIZE} buckets; every server tick processes exactly one bucket,
+ * reads the thirst of the players in it and puts them back {@code autoDrinkCheckIntervalTicks}
+ * ticks ahead. Players without canteens are never scheduled, and players who are not thirsty
+ * cost a single thirst read per check interval.
+ *
+ * <p>The drink itself goes through {@link CanteenItem#drink}, i.e. the same drain, RF and
+ * purity logic as a drink started by hand.
+ *
+ * <p>The wheel is driven by the server tick, but slot listeners fire on the tick of the level
+ * the player is in, so all scheduler state is guarded by the class lock.
+ */
+public class AutoDrinkScheduler {
+
+    /** Number of wheel buckets. Must be a power of two and larger than the max check interval. */
+    private static final int WHEEL_SIZE = 256;
+    private static final int WHEEL_MASK = WHEEL_SIZE - 1;
+
+    /** Player inventories are 41 slots; the mask covers the first 64. */
+    private static final int MAX_TRACKED_SLOTS = Long.SIZE;
+
+    @SuppressWarnings("unchecked")
+    private static final List<Tracked>[] WHEEL = new List[WHEEL_SIZE];
+    private static final Map<UUID, Tracked> TRACKED = new HashMap<>();
+    private static long tick = 0;
+
+    static {
+        for (int i = 0; i < WHEEL_SIZE; i++) {
+            WHEEL[i] = new ArrayList<>();
+        }
+    }
+
+    public static void register(IEventBus bus) {
+        bus.addListener(AutoDrinkScheduler::onPlayerLoggedIn);
+        bus.addListener(AutoDrinkScheduler::onPlayerRespawn);
+        bus.addListener(AutoDrinkScheduler::onPlayerLoggedOut);
+        bus.addListener(AutoDrinkScheduler::onServerTick);
+        bus.addListener(AutoDrinkScheduler::onServerStopped);
+    }
+
+    // -------------------------------------------------------------------------
+    // Player lifecycle
+    // -------------------------------------------------------------------------
+
+    private static void onPlayerLoggedIn(PlayerEvent.PlayerLoggedInEvent event) {
+        if (event.getEntity() instanceof ServerPlayer player) track(player);
+    }
+
+    /** Respawning creates a new ServerPlayer (and inventory menu), so the listener is re-attached. */
+    private static void onPlayerRespawn(PlayerEvent.PlayerRespawnEvent event) {
+        if (event.getEntity() instanceof ServerPlayer player) track(player);
+    }
+
+    private static synchronized void onPlayerLoggedOut(PlayerEvent.PlayerLoggedOutEvent event) {
+        Tracked tracked = TRACKED.remove(event.getEntity().getUUID());
+        if (tracked != null) tracked.removed = true; // lazily dropped from the wheel
+    }
+
+    @SuppressWarnings("unused") // event parameter required by NeoForge event bus signature
+    private static synchronized void onServerStopped(ServerStoppedEvent event) {
+        TRACKED.clear();
+        for (List<Tracked> bucket : WHEEL) bucket.clear();
+        tick = 0;
+    }
+
+    private static synchronized void track(ServerPlayer player) {
+        Tracked previous = TRACKED.get(player.getUUID());
+        if (previous != null) previous.removed = true;
+
+        Tracked tracked = new Tracked(player);
+        TRACKED.put(player.getUUID(), tracked);
+
+        // One full scan on attach; from here on the slot listener keeps the mask current.
+        Inventory inventory = player.getInventory();
+        int size = Math.min(inventory.getContainerSize(), MAX_TRACKED_SLOTS);
+        for (int i = 0; i < size; i++) {
+            if (isLinkedCanteen(inventory.getItem(i))) tracked.canteenSlots |= 1L << i;
+        }
+        player.inventoryMenu.addSlotListener(tracked);
+
+        if (tracked.canteenSlots != 0) {
+            // Spread players that join together across the wheel.
+            int interval = checkInterval();
+            schedule(tracked, 1 + Math.floorMod(player.getUUID().hashCode(), interval));
+        }
+    }
+
+    // -------------------------------------------------------------------------
+    // Timing wheel
+    // -------------------------------------------------------------------------
+
+    @SuppressWarnings("unused") // event parameter required by NeoForge event bus signature
+    private static synchronized void onServerTick(ServerTickEvent.Post event) {
+        List<Tracked> bucket = WHEEL[(int) (tick & WHEEL_MASK)];
+        if (bucket.isEmpty() || !EnderCanteenConfig.AUTO_DRINK_ENABLED.get()) {
+            tick++;
+            return;
+        }
+
+        int threshold = EnderCanteenConfig.AUTO_DRINK_THRESHOLD.get();
+        int interval = checkInterval();
+        // Rescheduling always lands 1..WHEEL_SIZE-1 ticks ahead, never in this bucket.
+        for (int i = 0; i < bucket.size(); i++) {
+            Tracked tracked = bucket.get(i);
+            tracked.scheduled = false;
+            if (tracked.removed || tracked.canteenSlots == 0) continue;
+
+            ServerPlayer player = tracked.player;
+            if (player.isAlive() && !player.isSpectator()) {
+                int thirst = ThirstCompat.getThirst(player);
+                if (thirst >= 0 && thirst < threshold) {
+                    drinkFromAnyCanteen(tracked);
+                }
+            }
+            if (tracked.canteenSlots != 0) schedule(tracked, interval);
+        }
+        bucket.clear();
+        tick++;
+    }
+
+    private static synchronized void schedule(Tracked tracked, int delay) {
+        if (tracked.scheduled) return;
+        tracked.scheduled = true;
+        WHEEL[(int) ((tick + delay) & WHEEL_MASK)].add(tracked);
+    }
+
+    private static int checkInterval() {
+        int interval = EnderCanteenConfig.AUTO_DRINK_CHECK_INTERVAL_TICKS.get();
+        if (LoadShedder.atLeast(LoadShedder.Stage.CRITICAL)) interval *= 2;
+        return Math.min(interval, WHEEL_SIZE - 1);
+    }
+
+    // -------------------------------------------------------------------------
+    // Drinking
+    // -------------------------------------------------------------------------
+
+    /** Drinks once from the first tracked canteen that succeeds. Stale mask bits are cleared. */
+    private static void drinkFromAnyCanteen(Tracked tracked) {
+        ServerPlayer player = tracked.player;
+        Inventory inventory = player.getInventory();
+        long slots = tracked.canteenSlots;
+        while (slots != 0) {
+            int slot = Long.numberOfTrailingZeros(slots);
+            slots &= slots - 1;
+
+            ItemStack stack = inventory.getItem(slot);
+            if (!isLinkedCanteen(stack)) {
+                tracked.canteenSlots &= ~(1L << slot);
+                continue;
+            }
+            if (CanteenItem.drink(stack, player.level(), player, true)) return;
+        }
+    }
+
+    private static boolean isLinkedCanteen(ItemStack stack) {
+        return stack.getItem() instanceof CanteenItem && CanteenItem.isLinked(stack);
+    }
+
+    // -------------------------------------------------------------------------
+    // Per-player state
+    // -------------------------------------------------------------------------
+
+    /**
+     * Per-player auto-drink state. Doubles as the inventory-menu slot listener so that
+     * canteens moved in, out of or around the inventory update {@link #canteenSlots}.
+     */
+    private static final class Tracked implements ContainerListener {
+
+        private final ServerPlayer player;
+        /** Bit {@code i} is set when inventory slot {@code i} holds a linked canteen. */
+        private long canteenSlots;
+        private boolean scheduled;
+        private boolean removed;
+
+        private Tracked(ServerPlayer player) {
+            this.player = player;
+        }
+
+        @Override
+        public void slotChanged(@NotNull AbstractContainerMenu menu, int menuSlot, @NotNull ItemStack stack) {
+            Slot slot = menu.getSlot(menuSlot);
+            if (slot.container != player.getInventory()) return; // crafting grid / result slot
+            int index = slot.getContainerSlot();
+            if (index < 0 || index >= MAX_TRACKED_SLOTS) return;
+
+            boolean linked = isLinkedCanteen(stack);
+            synchronized (AutoDrinkScheduler.class) {
+                if (removed) return;
+                if (linked) {
+                    canteenSlots |= 1L << index;
+                    schedule(this, checkInterval());
+                } else {
+                    canteenSlots &= ~(1L << index);
+                }
+            }
+        }
+
+        @Override
+        public void dataChanged(@NotNull AbstractContainerMenu menu, int dataSlot, int value) {
+            // Inventory menu has no data slots
+        }
+    }
+}
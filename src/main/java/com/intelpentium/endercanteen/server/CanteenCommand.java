@@ -0,0 +1,70 @@
+package com.intelpentium.endercanteen.server;
+
+import com.intelpentium.endercanteen.EnderCanteen;
+import com.intelpentium.endercanteen.fluid.HandlerCircuitBreaker;
+import com.mojang.brigadier.arguments.IntegerArgumentType;
+import net.minecraft.commands.CommandSourceStack;
+import net.minecraft.commands.Commands;
+import net.minecraft.commands.arguments.coordinates.BlockPosArgument;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.GlobalPos;
+import net.minecraft.network.chat.Component;
+import net.neoforged.neoforge.event.RegisterCommandsEvent;
+
+import java.util.Locale;
+
+/**
+ * {@code /endercanteen stats [reset]} – operator command showing the {@link CanteenStats}
+ * counters and the current state of the server-side canteen machinery.
+ * {@code /endercanteen links retarget <id> <pos>} moves a {@link LinkTable} link.
+ */
+public class CanteenCommand {
+
+    public static void onRegisterCommands(RegisterCommandsEvent event) {
+        event.getDispatcher().register(Commands.literal(EnderCanteen.MODID)
+                .requires(source -> source.hasPermission(Commands.LEVEL_GAMEMASTERS))
+                .then(Commands.literal("stats")
+                        .executes(ctx -> showStats(ctx.getSource()))
+                        .then(Commands.literal("reset")
+                                .executes(ctx -> resetStats(ctx.getSource()))))
+                .then(Commands.literal("links")
+                        .then(Commands.literal("retarget")
+                                .then(Commands.argument("id", IntegerArgumentType.integer(0))
+                                        .then(Commands.argument("pos", BlockPosArgument.blockPos())
+                                                .executes(ctx -> retargetLink(ctx.getSource(),
+                                                        IntegerArgumentType.getInteger(ctx, "id"),
+                                                        BlockPosArgument.getLoadedBlockPos(ctx, "pos"))))))));
+    }
+
+    private static int showStats(CommandSourceStack source) {
+        source.sendSuccess(() -> Component.translatable("commands.endercanteen.stats.header"), false);
+        for (CanteenStats.Counter counter : CanteenStats.Counter.values()) {
+            long value = CanteenStats.get(counter);
+            source.sendSuccess(() -> Component.translatable(counter.translationKey(), value), false);
+        }
+        int openBreakers = HandlerCircuitBreaker.openCount();
+        source.sendSuccess(() -> Component.translatable("commands.endercanteen.stats.open_breakers", openBreakers), false);
+        Component loadStage = Component.translatable(LoadShedder.stage().translationKey());
+        String mspt = String.format(Locale.ROOT, "%.1f", LoadShedder.averageMspt());
+        source.sendSuccess(() -> Component.translatable("commands.endercanteen.stats.load_shedding", loadStage, mspt), false);
+        return 1;
+    }
+
+    /** Points link {@code id} at {@code pos} in the executing source's dimension. */
+    private static int retargetLink(CommandSourceStack source, int id, BlockPos pos) {
+        GlobalPos target = GlobalPos.of(source.getLevel().dimension(), pos);
+        if (!LinkTable.get(source.getServer()).retarget(id, target)) {
+            source.sendFailure(Component.translatable("commands.endercanteen.links.unknown", id));
+            return 0;
+        }
+        source.sendSuccess(() -> Component.translatable("commands.endercanteen.links.retargeted",
+                id, pos.getX(), pos.getY(), pos.getZ(), target.dimension().location().toString()), true);
+        return 1;
+    }
+
+    private static int resetStats(CommandSourceStack source) {
+        CanteenStats.reset();
+        source.sendSuccess(() -> Component.translatable("commands.endercanteen.stats.reset"), true);
+        return 1;
+    }
+}
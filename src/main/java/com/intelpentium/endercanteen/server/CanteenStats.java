@@ -0,0 +1,50 @@
+package com.intelpentium.endercanteen.server;
+
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Server-side counters shown by {@code /endercanteen stats}.
+ * Atomic, since drinks run on the tick of the level they happen in; reset with
+ * {@code /endercanteen stats reset}.
+ */
+public class CanteenStats {
+
+    public enum Counter {
+        /** Drinks that restored thirst (manual and automatic). */
+        DRINKS,
+        /** Subset of {@link #DRINKS} triggered by the auto-drink scheduler. */
+        AUTO_DRINKS,
+        /** Times a fluid handler class or position was blacklisted by the circuit breaker. */
+        BREAKER_TRIPS,
+        /** Drinks refused because the linked handler was blacklisted. */
+        BREAKER_REJECTIONS,
+        /** Exceptions thrown by fluid handlers during a drink. */
+        HANDLER_ERRORS,
+        /**
+         * Drained fluid put back into a tank on the drink path. Drinks drain only what the RF
+         * pays for (see {@code CanteenItem#plannedMb}), so this stays 0; any fill-back added to
+         * the drink path must count here.
+         */
+        REFILLS;
+
+        /** Translation key of the stats line for this counter. */
+        public String translationKey() {
+            return "commands.endercanteen.stats." + name().toLowerCase(Locale.ROOT);
+        }
+    }
+
+    private static final AtomicLongArray VALUES = new AtomicLongArray(Counter.values().length);
+
+    public static void increment(Counter counter) {
+        VALUES.incrementAndGet(counter.ordinal());
+    }
+
+    public static long get(Counter counter) {
+        return VALUES.get(counter.ordinal());
+    }
+
+    public static void reset() {
+        for (int i = 0; i < VALUES.length(); i++) VALUES.set(i, 0L);
+    }
+}
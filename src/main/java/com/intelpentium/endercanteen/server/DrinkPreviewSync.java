@@ -0,0 +1,129 @@
+package com.intelpentium.endercanteen.server;
+
+import com.intelpentium.endercanteen.item.CanteenItem;
+import com.intelpentium.endercanteen.network.DrinkPreviewPacket;
+import it.unimi.dsi.fastutil.objects.Object2IntMap;
+import it.unimi.dsi.fastutil.objects.Object2IntOpenHashMap;
+import it.unimi.dsi.fastutil.objects.ObjectOpenHashSet;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.server.level.ServerPlayer;
+import net.minecraft.world.entity.EquipmentSlot;
+import net.minecraft.world.item.ItemStack;
+import net.neoforged.bus.api.IEventBus;
+import net.neoforged.neoforge.event.entity.living.LivingEquipmentChangeEvent;
+import net.neoforged.neoforge.event.entity.player.PlayerEvent;
+import net.neoforged.neoforge.event.server.ServerStoppedEvent;
+import net.neoforged.neoforge.event.tick.ServerTickEvent;
+import net.neoforged.neoforge.network.PacketDistributor;
+
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Keeps each client's AppleSkin drink preview in sync with what the held canteen would
+ * actually restore ({@link CanteenItem#previewDrink}).
+ *
+ * <p>The preview is recomputed when a hand item changes (switching slots, linking, RF
+ * changes – all reported by {@link LivingEquipmentChangeEvent}) and, for players holding a
+ * linked canteen, every {@link #REFRESH_INTERVAL_TICKS} ticks to pick up purity changes of
+ * the tank. A {@link DrinkPreviewPacket} is only sent when the value differs from the last one.
+ *
+ * <p>Under {@link LoadShedder} pressure the periodic refresh runs less often and, from
+ * {@link LoadShedder.Stage#DEGRADED}, hand changes are only picked up by the next periodic refresh.
+ *
+ * <p>State is keyed by player UUID: respawning replaces the {@link ServerPlayer} (keeping its
+ * entity id), and the periodic refresh must reach the new one. Hand changes are reported on
+ * the tick of the player's level, so the state is guarded by the class lock; previews are
+ * computed outside it.
+ */
+public class DrinkPreviewSync {
+
+    private static final int REFRESH_INTERVAL_TICKS = 100;
+    /** Value meaning "nothing sent yet" – forces the first refresh to send. */
+    private static final int UNSENT = Integer.MIN_VALUE;
+
+    /** Last preview sent per player (packed thirst/quench, -1 for none). */
+    private static final Object2IntMap<UUID> LAST_SENT = new Object2IntOpenHashMap<>();
+    /** Players whose hand changed while immediate refreshes were shed. */
+    private static final Set<UUID> DEFERRED = new ObjectOpenHashSet<>();
+    private static int ticks = 0;
+
+    static {
+        LAST_SENT.defaultReturnValue(UNSENT);
+    }
+
+    public static void register(IEventBus bus) {
+        bus.addListener(DrinkPreviewSync::onEquipmentChange);
+        bus.addListener(DrinkPreviewSync::onPlayerLoggedIn);
+        bus.addListener(DrinkPreviewSync::onPlayerLoggedOut);
+        bus.addListener(DrinkPreviewSync::onServerTick);
+        bus.addListener(DrinkPreviewSync::onServerStopped);
+    }
+
+    private static void onEquipmentChange(LivingEquipmentChangeEvent event) {
+        if (event.getSlot().getType() != EquipmentSlot.Type.HAND) return;
+        if (!(event.getEntity() instanceof ServerPlayer player)) return;
+        if (LoadShedder.atLeast(LoadShedder.Stage.DEGRADED)) {
+            synchronized (DrinkPreviewSync.class) {
+                DEFERRED.add(player.getUUID());
+            }
+        } else {
+            refresh(player);
+        }
+    }
+
+    private static void onPlayerLoggedIn(PlayerEvent.PlayerLoggedInEvent event) {
+        if (event.getEntity() instanceof ServerPlayer player) {
+            synchronized (DrinkPreviewSync.class) {
+                LAST_SENT.removeInt(player.getUUID());
+            }
+            refresh(player);
+        }
+    }
+
+    private static synchronized void onPlayerLoggedOut(PlayerEvent.PlayerLoggedOutEvent event) {
+        if (event.getEntity() instanceof ServerPlayer player) {
+            LAST_SENT.removeInt(player.getUUID());
+            DEFERRED.remove(player.getUUID());
+        }
+    }
+
+    private static void onServerTick(ServerTickEvent.Post event) {
+        int interval = LoadShedder.atLeast(LoadShedder.Stage.REDUCED) ? REFRESH_INTERVAL_TICKS * 4 : REFRESH_INTERVAL_TICKS;
+        if (++ticks < interval) return;
+        ticks = 0;
+        Set<UUID> holding;
+        synchronized (DrinkPreviewSync.class) {
+            if (LAST_SENT.isEmpty() && DEFERRED.isEmpty()) return;
+            holding = new ObjectOpenHashSet<>(DEFERRED);
+            DEFERRED.clear();
+            for (Object2IntMap.Entry<UUID> entry : LAST_SENT.object2IntEntrySet()) {
+                if (entry.getIntValue() >= 0) holding.add(entry.getKey());
+            }
+        }
+        MinecraftServer server = event.getServer();
+        for (UUID id : holding) {
+            // The current player object: respawning replaces it
+            ServerPlayer player = server.getPlayerList().getPlayer(id);
+            if (player != null) refresh(player);
+        }
+    }
+
+    @SuppressWarnings("unused") // event parameter required by NeoForge event bus signature
+    private static synchronized void onServerStopped(ServerStoppedEvent event) {
+        LAST_SENT.clear();
+        DEFERRED.clear();
+    }
+
+    /** Recomputes the player's preview and sends it if it changed. */
+    public static void refresh(ServerPlayer player) {
+        ItemStack held = CanteenItem.heldCanteen(player);
+        int preview = held.isEmpty() ? -1 : CanteenItem.previewDrink(held, player);
+        synchronized (DrinkPreviewSync.class) {
+            if (LAST_SENT.put(player.getUUID(), preview) == preview) return;
+        }
+        PacketDistributor.sendToPlayer(player, preview < 0
+                ? DrinkPreviewPacket.NONE
+                : new DrinkPreviewPacket(preview >>> 16, preview & 0xFFFF));
+    }
+}
@@ -0,0 +1,169 @@
+package com.intelpentium.endercanteen.server;
+
+import com.intelpentium.endercanteen.EnderCanteenConfig;
+import net.minecraft.core.HolderLookup;
+import net.minecraft.nbt.CompoundTag;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.server.level.ServerPlayer;
+import net.minecraft.world.level.saveddata.SavedData;
+import net.minecraft.world.scores.PlayerTeam;
+import net.neoforged.bus.api.IEventBus;
+import net.neoforged.neoforge.event.server.ServerStoppedEvent;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Shared RF storage for canteens when {@code rfBankEnabled} is set: one account per player
+ * or per scoreboard team ({@code rfBankScope}), saved with the overworld.
+ *
+ * <p>Canteens then carry no energy of their own. Drinking debits the drinker's account
+ * and the Fluid Tap credits its owner's account, each a single hash lookup. Both happen on
+ * the tick of the level they are in, so accounts are guarded by the bank's monitor.
+ */
+public class EnergyBank extends SavedData {
+
+    public enum Scope { PLAYER, TEAM }
+
+    private static final String NAME = "endercanteen_energy_bank";
+
+    private static final SavedData.Factory<EnergyBank> FACTORY =
+            new SavedData.Factory<>(EnergyBank::new, EnergyBank::load, null);
+
+    /** The loaded bank, resolved once per server run. */
+    @Nullable
+    private static volatile EnergyBank instance;
+
+    private final Map<UUID, Account> players = new HashMap<>();
+    private final Map<String, Account> teams = new HashMap<>();
+
+    public static void register(IEventBus bus) {
+        bus.addListener(EnergyBank::onServerStopped);
+    }
+
+    public static boolean isEnabled() {
+        return EnderCanteenConfig.RF_BANK_ENABLED.get();
+    }
+
+    public static EnergyBank get(MinecraftServer server) {
+        EnergyBank bank = instance;
+        if (bank != null) return bank;
+        synchronized (EnergyBank.class) {
+            if (instance == null) instance = server.overworld().getDataStorage().computeIfAbsent(FACTORY, NAME);
+            return instance;
+        }
+    }
+
+    @SuppressWarnings("unused") // event parameter required by NeoForge event bus signature
+    private static void onServerStopped(ServerStoppedEvent event) {
+        instance = null;
+    }
+
+    // -------------------------------------------------------------------------
+    // Accounts
+    // -------------------------------------------------------------------------
+
+    /** The account the player drinks from. */
+    public Account account(ServerPlayer player) {
+        return account(player.getUUID(), player.getTeam());
+    }
+
+    /** The account of an owner who may be offline, looked up by scoreboard name for team scope. */
+    public Account account(MinecraftServer server, UUID owner, @Nullable String ownerName) {
+        PlayerTeam team = ownerName != null ? server.getScoreboard().getPlayersTeam(ownerName) : null;
+        return account(owner, team);
+    }
+
+    private synchronized Account account(UUID owner, @Nullable PlayerTeam team) {
+        boolean byTeam = team != null && EnderCanteenConfig.RF_BANK_SCOPE.get() == Scope.TEAM;
+        Account account = byTeam ? teams.get(team.getName()) : players.get(owner);
+        if (account == null) {
+            account = new Account(this);
+            if (byTeam) teams.put(team.getName(), account);
+            else players.put(owner, account);
+        }
+        return account;
+    }
+
+    /** One balance. Mutations mark the bank dirty. */
+    public static final class Account {
+
+        private final EnergyBank bank;
+        private int energy;
+
+        private Account(EnergyBank bank) {
+            this.bank = bank;
+        }
+
+        public int energy() {
+            synchronized (bank) {
+                return energy;
+            }
+        }
+
+        public int capacity() {
+            return EnderCanteenConfig.RF_BANK_CAPACITY.get();
+        }
+
+        public int deposit(int maxDeposit, boolean simulate) {
+            synchronized (bank) {
+                int accepted = Math.max(0, Math.min(maxDeposit, capacity() - energy));
+                if (!simulate && accepted > 0) {
+                    energy += accepted;
+                    bank.setDirty();
+                }
+                return accepted;
+            }
+        }
+
+        public int withdraw(int maxWithdraw, boolean simulate) {
+            synchronized (bank) {
+                int extracted = Math.max(0, Math.min(maxWithdraw, energy));
+                if (!simulate && extracted > 0) {
+                    energy -= extracted;
+                    bank.setDirty();
+                }
+                return extracted;
+            }
+        }
+    }
+
+    // -------------------------------------------------------------------------
+    // Persistence
+    // -------------------------------------------------------------------------
+
+    private static EnergyBank load(CompoundTag tag, HolderLookup.Provider registries) {
+        EnergyBank bank = new EnergyBank();
+        CompoundTag playerTag = tag.getCompound("players");
+        for (String key : playerTag.getAllKeys()) {
+            try {
+                bank.players.computeIfAbsent(UUID.fromString(key), k -> new Account(bank)).energy = playerTag.getInt(key);
+            } catch (IllegalArgumentException ignored) {
+                // Malformed UUID: drop the entry
+            }
+        }
+        CompoundTag teamTag = tag.getCompound("teams");
+        for (String key : teamTag.getAllKeys()) {
+            bank.teams.computeIfAbsent(key, k -> new Account(bank)).energy = teamTag.getInt(key);
+        }
+        return bank;
+    }
+
+    @Override
+    public synchronized @NotNull CompoundTag save(@NotNull CompoundTag tag, @NotNull HolderLookup.Provider registries) {
+        CompoundTag playerTag = new CompoundTag();
+        players.forEach((id, account) -> {
+            if (account.energy > 0) playerTag.putInt(id.toString(), account.energy);
+        });
+        CompoundTag teamTag = new CompoundTag();
+        teams.forEach((name, account) -> {
+            if (account.energy > 0) teamTag.putInt(name, account.energy);
+        });
+        tag.put("players", playerTag);
+        tag.put("teams", teamTag);
+        return tag;
+    }
+}
@@ -0,0 +1,147 @@
+package com.intelpentium.endercanteen.server;
+
+import com.intelpentium.endercanteen.EnderCanteenConfig;
+import com.intelpentium.endercanteen.registry.ModDataComponents;
+import it.unimi.dsi.fastutil.objects.Object2IntMap;
+import it.unimi.dsi.fastutil.objects.Object2IntOpenHashMap;
+import net.minecraft.core.GlobalPos;
+import net.minecraft.core.HolderLookup;
+import net.minecraft.nbt.CompoundTag;
+import net.minecraft.nbt.ListTag;
+import net.minecraft.nbt.NbtOps;
+import net.minecraft.nbt.Tag;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.world.level.saveddata.SavedData;
+import net.neoforged.bus.api.IEventBus;
+import net.neoforged.neoforge.event.server.ServerStoppedEvent;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Arrays;
+
+/**
+ * Server-side table of link targets used when {@code linkTableEnabled} is set, saved with
+ * the overworld.
+ *
+ * <p>Linking a canteen then stores a compact int id ({@link ModDataComponents#LINK_ID})
+ * instead of the full position. All canteens linked to the same block share one id, so
+ * moving a tank is a single {@link #retarget} ({@code /endercanteen links retarget}) and
+ * resolving a link is an array index. Ids are never reused.
+ *
+ * <p>Links are resolved from every level's tick, which may run in parallel with the server
+ * thread's commands and saves, so all access to the table goes through its monitor.
+ */
+public class LinkTable extends SavedData {
+
+    private static final String NAME = "endercanteen_links";
+
+    private static final SavedData.Factory<LinkTable> FACTORY =
+            new SavedData.Factory<>(LinkTable::new, LinkTable::load, null);
+
+    /** The loaded table, resolved once per server run. */
+    @Nullable
+    private static volatile LinkTable instance;
+
+    private GlobalPos[] targets = new GlobalPos[16];
+    private int size;
+    /** Reverse index so that linking the same block again reuses its id. */
+    private final Object2IntMap<GlobalPos> ids = new Object2IntOpenHashMap<>();
+
+    private LinkTable() {
+        ids.defaultReturnValue(-1);
+    }
+
+    public static void register(IEventBus bus) {
+        bus.addListener(LinkTable::onServerStopped);
+    }
+
+    public static boolean isEnabled() {
+        return EnderCanteenConfig.LINK_TABLE_ENABLED.get();
+    }
+
+    public static LinkTable get(MinecraftServer server) {
+        LinkTable table = instance;
+        if (table != null) return table;
+        synchronized (LinkTable.class) {
+            if (instance == null) instance = server.overworld().getDataStorage().computeIfAbsent(FACTORY, NAME);
+            return instance;
+        }
+    }
+
+    @SuppressWarnings("unused") // event parameter required by NeoForge event bus signature
+    private static void onServerStopped(ServerStoppedEvent event) {
+        instance = null;
+    }
+
+    // -------------------------------------------------------------------------
+    // Links
+    // -------------------------------------------------------------------------
+
+    /** The id of the link to {@code target}, allocating one if none exists yet. */
+    public synchronized int idFor(GlobalPos target) {
+        int id = ids.getInt(target);
+        if (id >= 0) return id;
+        id = add(ModDataComponents.internLink(target));
+        setDirty();
+        return id;
+    }
+
+    /** The target of link {@code id}, or null if there is no such link. */
+    @Nullable
+    public synchronized GlobalPos target(int id) {
+        return id >= 0 && id < size ? targets[id] : null;
+    }
+
+    /** Points link {@code id} at a new target; every canteen using it follows. */
+    public synchronized boolean retarget(int id, GlobalPos target) {
+        if (id < 0 || id >= size) return false;
+        GlobalPos old = targets[id];
+        if (old != null && ids.getInt(old) == id) ids.removeInt(old);
+        target = ModDataComponents.internLink(target);
+        targets[id] = target;
+        // If another link already points there, new links keep joining that one.
+        ids.putIfAbsent(target, id);
+        setDirty();
+        return true;
+    }
+
+    public synchronized int size() {
+        return size;
+    }
+
+    private int add(@Nullable GlobalPos target) {
+        if (size == targets.length) targets = Arrays.copyOf(targets, size * 2);
+        int id = size++;
+        targets[id] = target;
+        if (target != null) ids.putIfAbsent(target, id);
+        return id;
+    }
+
+    // -------------------------------------------------------------------------
+    // Persistence
+    // -------------------------------------------------------------------------
+
+    /** Saved as a list indexed by id. */
+    private static LinkTable load(CompoundTag tag, HolderLookup.Provider registries) {
+        LinkTable table = new LinkTable();
+        ListTag list = tag.getList("links", Tag.TAG_COMPOUND);
+        for (int i = 0; i < list.size(); i++) {
+            // A target that no longer parses (e.g. removed dimension) keeps its id but stays unresolvable.
+            table.add(ModDataComponents.LINK_CODEC.parse(NbtOps.INSTANCE, list.getCompound(i)).result().orElse(null));
+        }
+        return table;
+    }
+
+    @Override
+    public synchronized @NotNull CompoundTag save(@NotNull CompoundTag tag, @NotNull HolderLookup.Provider registries) {
+        ListTag list = new ListTag();
+        for (int i = 0; i < size; i++) {
+            GlobalPos target = targets[i];
+            list.add(target != null
+                    ? ModDataComponents.LINK_CODEC.encodeStart(NbtOps.INSTANCE, target).result().orElseGet(CompoundTag::new)
+                    : new CompoundTag());
+        }
+        tag.put("links", list);
+        return tag;
+    }
+}
@@ -0,0 +1,103 @@
+package com.intelpentium.endercanteen.server;
+
+import com.intelpentium.endercanteen.EnderCanteen;
+import com.intelpentium.endercanteen.EnderCanteenConfig;
+import net.neoforged.bus.api.IEventBus;
+import net.neoforged.neoforge.event.server.ServerStoppedEvent;
+import net.neoforged.neoforge.event.tick.ServerTickEvent;
+
+import java.util.Locale;
+
+/**
+ * Degrades optional canteen work in steps while the server is behind on ticks.
+ *
+ * <p>Once per second the server's average tick time (over the last 100 ticks) is compared
+ * with the configured thresholds. Stages only go up or down one at a time, and a stage is
+ * left only when MSPT has dropped {@code shedRecoveryMarginMspt} below its threshold, so
+ * the controller does not flap around a threshold.
+ *
+ * <ul>
+ *   <li>{@link Stage#REDUCED} – periodic drink-preview refreshes run 4× less often.</li>
+ *   <li>{@link Stage#DEGRADED} – additionally: {@code use()} skips the SIMULATE drain
+ *       pre-check, hand changes no longer trigger an immediate preview update and the
+ *       server-side drink sound is not played.</li>
+ *   <li>{@link Stage#CRITICAL} – additionally: new drinks drain in one go at the end
+ *       instead of in sips, and auto-drink checks run half as often.</li>
+ * </ul>
+ * Draining, RF and thirst themselves are never shed.
+ */
+public class LoadShedder {
+
+    public enum Stage {
+        NORMAL, REDUCED, DEGRADED, CRITICAL;
+
+        public String translationKey() {
+            return "commands.endercanteen.stats.load_stage." + name().toLowerCase(Locale.ROOT);
+        }
+    }
+
+    private static final int EVALUATE_INTERVAL_TICKS = 20;
+
+    /** Written on the server thread, read from every level's tick. */
+    private static volatile Stage stage = Stage.NORMAL;
+    private static volatile float averageMspt;
+    private static int ticks;
+
+    public static void register(IEventBus bus) {
+        bus.addListener(LoadShedder::onServerTick);
+        bus.addListener(LoadShedder::onServerStopped);
+    }
+
+    public static Stage stage() {
+        return stage;
+    }
+
+    public static boolean atLeast(Stage threshold) {
+        return stage.compareTo(threshold) >= 0;
+    }
+
+    /** Average MSPT at the last evaluation. */
+    public static float averageMspt() {
+        return averageMspt;
+    }
+
+    private static void onServerTick(ServerTickEvent.Post event) {
+        if (++ticks < EVALUATE_INTERVAL_TICKS) return;
+        ticks = 0;
+
+        averageMspt = event.getServer().getAverageTickTimeNanos() / 1_000_000f;
+        Stage next = EnderCanteenConfig.LOAD_SHEDDING_ENABLED.get() ? nextStage(averageMspt) : Stage.NORMAL;
+        if (next != stage) {
+            EnderCanteen.LOGGER.info("[EnderCanteen] Load shedding {} -> {} (average tick {} ms)",
+                    stage, next, String.format(Locale.ROOT, "%.1f", averageMspt));
+            stage = next;
+        }
+    }
+
+    private static Stage nextStage(float mspt) {
+        Stage[] stages = Stage.values();
+        if (stage != Stage.CRITICAL && mspt >= threshold(stages[stage.ordinal() + 1])) {
+            return stages[stage.ordinal() + 1];
+        }
+        if (stage != Stage.NORMAL && mspt < threshold(stage) - EnderCanteenConfig.SHED_RECOVERY_MARGIN_MSPT.get()) {
+            return stages[stage.ordinal() - 1];
+        }
+        return stage;
+    }
+
+    private static int threshold(Stage stage) {
+        return switch (stage) {
+            case NORMAL -> 0;
+            case REDUCED -> EnderCanteenConfig.SHED_REDUCED_MSPT.get();
+            case DEGRADED -> EnderCanteenConfig.SHED_DEGRADED_MSPT.get();
+            case CRITICAL -> EnderCanteenConfig.SHED_CRITICAL_MSPT.get();
+        };
+    }
+
+    @SuppressWarnings("unused") // event parameter required by NeoForge event bus signature
+    private static void onServerStopped(ServerStoppedEvent event) {
+        stage = Stage.NORMAL;
+        averageMspt = 0;
+        ticks = 0;
+    }
+}
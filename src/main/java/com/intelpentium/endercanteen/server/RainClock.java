@@ -0,0 +1,81 @@
+package com.intelpentium.endercanteen.server;
+
+import net.minecraft.core.HolderLookup;
+import net.minecraft.nbt.CompoundTag;
+import net.minecraft.resources.ResourceKey;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.world.level.Level;
+import net.minecraft.world.level.saveddata.SavedData;
+import net.neoforged.bus.api.IEventBus;
+import net.neoforged.neoforge.event.server.ServerStoppedEvent;
+import net.neoforged.neoforge.event.tick.LevelTickEvent;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Per-dimension count of ticks it has rained, saved with the level.
+ *
+ * <p>Rain-collecting taps remember the count when they last collected and fill the difference
+ * when they are next accessed, so a tap never ticks and weather changes in between are
+ * accounted for exactly. The clock itself costs one increment per raining level per tick.
+ */
+public class RainClock extends SavedData {
+
+    private static final String NAME = "endercanteen_rain";
+
+    private static final SavedData.Factory<RainClock> FACTORY =
+            new SavedData.Factory<>(RainClock::new, RainClock::load, null);
+
+    /** Loaded clocks by dimension; levels may tick in parallel. */
+    private static final Map<ResourceKey<Level>, RainClock> BY_LEVEL = new ConcurrentHashMap<>();
+
+    private long rainTicks;
+
+    private RainClock() {}
+
+    public static void register(IEventBus bus) {
+        bus.addListener(RainClock::onLevelTick);
+        bus.addListener(RainClock::onServerStopped);
+    }
+
+    public static RainClock get(ServerLevel level) {
+        return BY_LEVEL.computeIfAbsent(level.dimension(),
+                k -> level.getDataStorage().computeIfAbsent(FACTORY, NAME));
+    }
+
+    /** Ticks it has rained in this dimension since the clock was created. */
+    public long rainTicks() {
+        return rainTicks;
+    }
+
+    private static void onLevelTick(LevelTickEvent.Post event) {
+        if (event.getLevel() instanceof ServerLevel level && level.isRaining()) {
+            RainClock clock = get(level);
+            clock.rainTicks++;
+            clock.setDirty();
+        }
+    }
+
+    @SuppressWarnings("unused") // event parameter required by NeoForge event bus signature
+    private static void onServerStopped(ServerStoppedEvent event) {
+        BY_LEVEL.clear();
+    }
+
+    // -------------------------------------------------------------------------
+    // Persistence
+    // -------------------------------------------------------------------------
+
+    private static RainClock load(CompoundTag tag, HolderLookup.Provider registries) {
+        RainClock clock = new RainClock();
+        clock.rainTicks = tag.getLong("RainTicks");
+        return clock;
+    }
+
+    @Override
+    public @NotNull CompoundTag save(@NotNull CompoundTag tag, @NotNull HolderLookup.Provider registries) {
+        tag.putLong("RainTicks", rainTicks);
+        return tag;
+    }
+}